@@ -17,6 +17,7 @@ package com.litekite.monetize.base;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.view.Choreographer;
 import android.view.View;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
@@ -25,6 +26,8 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import com.google.android.material.snackbar.Snackbar;
 import com.litekite.monetize.R;
+import com.litekite.monetize.metrics.FrameMetricsCollector;
+import javax.inject.Inject;
 
 /**
  * BaseActivity, Provides common features and functionality available for all activities.
@@ -36,6 +39,13 @@ import com.litekite.monetize.R;
 @SuppressLint("Registered")
 public class BaseActivity extends AppCompatActivity {
 
+    // UI states of a list, while its items are diffed and while the changed items are rebound.
+    protected static final String UI_STATE_LIST_DIFF = "list diff";
+    protected static final String UI_STATE_LIST_REBIND = "list rebind";
+
+    @Inject protected ViewHolderPool viewHolderPool;
+    @Inject protected FrameMetricsCollector frameMetricsCollector;
+
     /**
      * Starts Activity animation.
      *
@@ -81,6 +91,47 @@ public class BaseActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Sets what this activity is doing, which its slow frames are tagged with.
+     *
+     * @param uiState The UI state, e.g. "list diff".
+     */
+    protected void setUiState(@NonNull String uiState) {
+        frameMetricsCollector.setUiState(this, uiState);
+    }
+
+    /**
+     * Sets what this activity is doing until the next frame is drawn, e.g. binding views that are
+     * laid out and drawn in the next frame, and it is idle afterwards.
+     *
+     * @param uiState The UI state, e.g. "premium drawables update".
+     */
+    protected void setUiStateForNextFrame(@NonNull String uiState) {
+        setUiState(uiState);
+        Choreographer.getInstance()
+                .postFrameCallback(
+                        frameTimeNanos -> setUiState(FrameMetricsCollector.UI_STATE_IDLE));
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        frameMetricsCollector.onActivityResumed(this);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        frameMetricsCollector.onActivityPaused(this);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Pooled list item views must not keep this activity.
+        viewHolderPool.release(this);
+    }
+
     @Override
     public void onBackPressed() {
         super.onBackPressed();
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.base;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import com.litekite.monetize.app.MonetizeApp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * FrameDispatcher, delivers UI notifications on the main thread once per frame. Notifications that
+ * are dispatched from any thread are held until the next vsync, and run together from a single
+ * {@link Choreographer} frame callback, before the frame is laid out and drawn.
+ *
+ * <p>A notification is dispatched with a key, and a notification that is dispatched again with the
+ * same key before the next frame replaces the pending one, which keeps its place in the order. So a
+ * burst of background events costs a single main thread slot, and each of their notifications is
+ * delivered once with its latest value.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@Singleton
+public class FrameDispatcher {
+
+    private static final String TAG = FrameDispatcher.class.getName();
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Choreographer.FrameCallback frameCallback = this::deliverNotifications;
+    private final Runnable scheduleFrameRunnable = this::scheduleFrame;
+    // The notifications to be delivered on the next frame, by their key, guarded by this.
+    private Map<String, Runnable> pendingNotifications = new LinkedHashMap<>();
+    private boolean isFrameScheduled;
+    private long dispatchedCount;
+    private long collapsedCount;
+    private long frameCount;
+    // Obtained on the main thread, as a Choreographer belongs to the thread it is obtained on.
+    private Choreographer choreographer;
+
+    @Inject
+    public FrameDispatcher() {}
+
+    /**
+     * Delivers the given notification on the main thread on the next frame, in place of the one
+     * that is pending with the same key, if any.
+     *
+     * @param key Identifies the notification, e.g. "NetworkManager.notifyNetworkState".
+     * @param notification The notification to run on the main thread.
+     */
+    public void dispatch(@NonNull String key, @NonNull Runnable notification) {
+        synchronized (this) {
+            dispatchedCount++;
+            if (pendingNotifications.put(key, notification) != null) {
+                collapsedCount++;
+            }
+            if (isFrameScheduled) {
+                return;
+            }
+            isFrameScheduled = true;
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            scheduleFrame();
+        } else {
+            mainHandler.post(scheduleFrameRunnable);
+        }
+    }
+
+    /** @return the number of notifications that were dispatched. */
+    public synchronized long getDispatchedCount() {
+        return dispatchedCount;
+    }
+
+    /**
+     * @return the number of notifications that were replaced by a notification with the same key
+     *     before they were delivered.
+     */
+    public synchronized long getCollapsedCount() {
+        return collapsedCount;
+    }
+
+    /** @return the number of frames that the notifications were delivered on. */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    @MainThread
+    private void scheduleFrame() {
+        if (choreographer == null) {
+            choreographer = Choreographer.getInstance();
+        }
+        choreographer.postFrameCallback(frameCallback);
+    }
+
+    /** Runs the notifications that are pending, in the order they were first dispatched. */
+    @MainThread
+    private void deliverNotifications(long frameTimeNanos) {
+        final Map<String, Runnable> notifications;
+        synchronized (this) {
+            notifications = pendingNotifications;
+            pendingNotifications = new LinkedHashMap<>();
+            isFrameScheduled = false;
+            frameCount++;
+        }
+        if (notifications.size() > 1) {
+            MonetizeApp.printLog(
+                    TAG, "delivering " + notifications.size() + " notifications in a frame");
+        }
+        for (Runnable notification : notifications.values()) {
+            notification.run();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.base;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import androidx.annotation.LayoutRes;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.recyclerview.widget.RecyclerView;
+import com.litekite.monetize.app.MonetizeApp;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * ViewHolderPool, keeps list item views ready for the RecyclerViews of the application. It holds a
+ * {@link RecyclerView.RecycledViewPool} for each list item layout, which keeps the rows of a list
+ * for the next time that list is shown, and it pre-inflates list item layouts on a background
+ * thread, so that a list can show its first frame without inflating.
+ *
+ * <p>List item views are inflated within a {@link MutableContextWrapper} that is moved to the
+ * activity showing them, and moved to the application context when that activity is destroyed, so a
+ * pooled view never leaks an activity. The list item layouts must not depend on a {@link
+ * LayoutInflater.Factory2}, since {@link AsyncLayoutInflater} does not support it, so they declare
+ * the AppCompat widgets explicitly.
+ *
+ * <p>The view type of a list item is its layout resource id, which is also the key of its pool.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@Singleton
+public class ViewHolderPool {
+
+    private static final String TAG = ViewHolderPool.class.getName();
+
+    // The rows that a pool keeps, the lists of the application show a few rows at most.
+    private static final int MAX_RECYCLED_VIEWS = 4;
+
+    private final SparseArray<RecyclerView.RecycledViewPool> recycledViewPools =
+            new SparseArray<>();
+    private final SparseArray<ArrayDeque<View>> preInflatedViews = new SparseArray<>();
+    private final SparseIntArray pendingInflations = new SparseIntArray();
+    // The context wrappers of the inflated list item views, and their layout resource ids.
+    private final Map<MutableContextWrapper, Integer> contextWrappers = new WeakHashMap<>();
+
+    @Inject
+    public ViewHolderPool() {}
+
+    /**
+     * Moves a list item view to the given context, if it was inflated by this pool.
+     *
+     * @param itemView A list item view.
+     * @param context An activity context in which the view is shown.
+     */
+    @MainThread
+    private static void attachTo(@NonNull View itemView, @NonNull Context context) {
+        final Context itemContext = itemView.getContext();
+        if (itemContext instanceof MutableContextWrapper
+                && ((MutableContextWrapper) itemContext).getBaseContext() != context) {
+            ((MutableContextWrapper) itemContext).setBaseContext(context);
+        }
+    }
+
+    /**
+     * Gives the given list the pool of its list item layout, which keeps its rows for the next time
+     * it is shown. The rows that wait in the pool, since the activity that showed them last was
+     * destroyed, are moved to the activity of the given list.
+     *
+     * @param recyclerView A list whose rows are of the given layout.
+     * @param layoutId A list item layout resource id.
+     */
+    @MainThread
+    public void attachRecycledViewPool(
+            @NonNull RecyclerView recyclerView, @LayoutRes int layoutId) {
+        final Context context = recyclerView.getContext();
+        final Context applicationContext = context.getApplicationContext();
+        for (Map.Entry<MutableContextWrapper, Integer> entry : contextWrappers.entrySet()) {
+            if (entry.getValue() == layoutId
+                    && entry.getKey().getBaseContext() == applicationContext) {
+                entry.getKey().setBaseContext(context);
+            }
+        }
+        recyclerView.setRecycledViewPool(getRecycledViewPool(layoutId));
+    }
+
+    /**
+     * Inflates list item views of the given layout on a background thread, until there are as many
+     * of them ready as the given count, including the views waiting in the pool of the layout.
+     *
+     * @param activity An activity context whose theme the views are inflated with.
+     * @param layoutId A list item layout resource id.
+     * @param count Number of list item views to be kept ready.
+     */
+    @MainThread
+    public void preInflate(@NonNull Activity activity, @LayoutRes int layoutId, int count) {
+        final ArrayDeque<View> views = getPreInflatedViews(layoutId);
+        final int readyCount =
+                views.size()
+                        + pendingInflations.get(layoutId)
+                        + getRecycledViewPool(layoutId).getRecycledViewCount(layoutId);
+        if (readyCount >= count) {
+            return;
+        }
+        final MutableContextWrapper contextWrapper = newContextWrapper(activity, layoutId);
+        final AsyncLayoutInflater asyncLayoutInflater = new AsyncLayoutInflater(contextWrapper);
+        // Gives the inflated root views the layout params of their layout.
+        final ViewGroup parent = new FrameLayout(contextWrapper);
+        for (int i = readyCount; i < count; i++) {
+            pendingInflations.put(layoutId, pendingInflations.get(layoutId) + 1);
+            asyncLayoutInflater.inflate(
+                    layoutId,
+                    parent,
+                    (view, resId, p) -> {
+                        pendingInflations.put(resId, pendingInflations.get(resId) - 1);
+                        views.add(view);
+                    });
+        }
+        MonetizeApp.printLog(
+                TAG, "preInflate: " + (count - readyCount) + " views of layout: " + layoutId);
+    }
+
+    /**
+     * Gives a pre-inflated list item view of the given layout, or inflates one if none is ready.
+     *
+     * @param parent The RecyclerView in which the list item view will be shown.
+     * @param layoutId A list item layout resource id.
+     * @return a list item view.
+     */
+    @MainThread
+    @NonNull
+    public View obtainView(@NonNull ViewGroup parent, @LayoutRes int layoutId) {
+        final View view = getPreInflatedViews(layoutId).poll();
+        if (view != null) {
+            attachTo(view, parent.getContext());
+            return view;
+        }
+        MonetizeApp.printLog(TAG, "obtainView: inflating layout: " + layoutId);
+        return LayoutInflater.from(parent.getContext())
+                .cloneInContext(newContextWrapper(parent.getContext(), layoutId))
+                .inflate(layoutId, parent, false);
+    }
+
+    /**
+     * Moves the list item views that are in the given activity to the application context, since
+     * the activity is being destroyed and those views may still be pooled.
+     *
+     * @param activity An activity that is being destroyed.
+     */
+    @MainThread
+    public void release(@NonNull Activity activity) {
+        for (MutableContextWrapper contextWrapper : contextWrappers.keySet()) {
+            if (contextWrapper.getBaseContext() == activity) {
+                contextWrapper.setBaseContext(activity.getApplicationContext());
+            }
+        }
+    }
+
+    @NonNull
+    private RecyclerView.RecycledViewPool getRecycledViewPool(@LayoutRes int layoutId) {
+        RecyclerView.RecycledViewPool recycledViewPool = recycledViewPools.get(layoutId);
+        if (recycledViewPool == null) {
+            recycledViewPool = new RecyclerView.RecycledViewPool();
+            recycledViewPool.setMaxRecycledViews(layoutId, MAX_RECYCLED_VIEWS);
+            recycledViewPools.put(layoutId, recycledViewPool);
+        }
+        return recycledViewPool;
+    }
+
+    @NonNull
+    private ArrayDeque<View> getPreInflatedViews(@LayoutRes int layoutId) {
+        ArrayDeque<View> views = preInflatedViews.get(layoutId);
+        if (views == null) {
+            views = new ArrayDeque<>();
+            preInflatedViews.put(layoutId, views);
+        }
+        return views;
+    }
+
+    @NonNull
+    private MutableContextWrapper newContextWrapper(
+            @NonNull Context context, @LayoutRes int layoutId) {
+        final MutableContextWrapper contextWrapper = new MutableContextWrapper(context);
+        contextWrappers.put(contextWrapper, layoutId);
+        return contextWrapper;
+    }
+}
@@ -17,6 +17,9 @@ package com.litekite.monetize.billing;
 
 import android.app.Activity;
 import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
@@ -42,10 +45,17 @@ import com.android.billingclient.api.SkuDetailsResponseListener;
 import com.litekite.monetize.R;
 import com.litekite.monetize.app.MonetizeApp;
 import com.litekite.monetize.base.CallbackProvider;
+import com.litekite.monetize.base.FrameDispatcher;
+import com.litekite.monetize.di.IoExecutor;
+import com.litekite.monetize.metrics.PurchaseFunnelTracer;
 import com.litekite.monetize.network.NetworkManager;
+import com.litekite.monetize.network.NetworkQuality;
 import com.litekite.monetize.room.database.AppDatabase;
+import com.litekite.monetize.room.database.PurchaseRecordSource;
 import com.litekite.monetize.room.entity.BillingPurchaseDetails;
 import com.litekite.monetize.room.entity.BillingSkuDetails;
+import com.litekite.monetize.util.DateTimeUtil;
+import com.litekite.monetize.worker.KeyedSerialExecutor;
 import com.litekite.monetize.worker.WorkExecutor;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -77,16 +87,33 @@ public class BillingManager
                 NetworkManager.NetworkStateCallback {
 
     public static final String TAG = BillingManager.class.getName();
+    // Consumed purchases older than this are folded into the purchase count
+    private static final long CONSUMABLE_PURCHASE_RETENTION_IN_MILLIS =
+            DateTimeUtil.THIRTY_DAYS_IN_MILLIS;
+    // Keys of the table writes, which are ordered per table.
+    private static final String PURCHASE_DETAILS_TABLE = "billing_purchase_details";
+    private static final String SKU_DETAILS_TABLE = "billing_sku_details";
+    // Keeps the watermark of the purchase history sync and when it was last synced.
+    private static final String PURCHASE_SYNC_PREFERENCES = "purchase_sync";
+    private static final String KEY_WATERMARK = "watermark";
+    private static final String KEY_LAST_SYNC_TIME = "last_sync_time";
+    // The purchase history is not synced in foreground if it was synced within this time.
+    private static final long FOREGROUND_SYNC_INTERVAL_IN_MILLIS = 6 * 60 * 60 * 1000;
     // Default value of mBillingClientResponseCode until BillingManager was not yet initialized
     private final List<Purchase> myPurchasesResultList = new ArrayList<>();
     // Background work executor
     private final Context context;
     private final AppDatabase appDatabase;
     private final NetworkManager networkManager;
-    private final WorkExecutor workExecutor;
+    private final WorkExecutor ioExecutor;
+    // Writes to the same table are committed in the order they were submitted.
+    private final KeyedSerialExecutor tableWriteExecutor;
+    private final PurchaseFunnelTracer purchaseFunnelTracer;
+    private final FrameDispatcher frameDispatcher;
     /** A reference to BillingClient */
     private final BillingClient myBillingClient;
 
+    private final Handler handler = new Handler(Looper.getMainLooper());
     private final List<BillingCallback> billingCallbacks = new ArrayList<>();
     private final Set<String> tokensToBeConsumed = new HashSet<>();
 
@@ -95,18 +122,26 @@ public class BillingManager
      * Google Play Remote Server, gets purchase details from Google Play Cache.
      *
      * @param context activity or application context.
-     * @param workExecutor An executor with fixed thread pool handles background works.
+     * @param ioExecutor An executor with fixed thread pool handles blocking I/O, such as database
+     *     writes.
+     * @param purchaseFunnelTracer Traces the stages of a purchase made by the user.
+     * @param frameDispatcher Delivers the billing error notifications on the next frame.
      */
     @Inject
     public BillingManager(
             @NonNull Context context,
             @NonNull AppDatabase appDatabase,
             @NonNull NetworkManager networkManager,
-            @NonNull WorkExecutor workExecutor) {
+            @IoExecutor @NonNull WorkExecutor ioExecutor,
+            @NonNull PurchaseFunnelTracer purchaseFunnelTracer,
+            @NonNull FrameDispatcher frameDispatcher) {
         this.context = context;
         this.appDatabase = appDatabase;
         this.networkManager = networkManager;
-        this.workExecutor = workExecutor;
+        this.ioExecutor = ioExecutor;
+        this.tableWriteExecutor = new KeyedSerialExecutor(ioExecutor);
+        this.purchaseFunnelTracer = purchaseFunnelTracer;
+        this.frameDispatcher = frameDispatcher;
         MonetizeApp.printLog(TAG, "Creating Billing client.");
         myBillingClient =
                 BillingClient.newBuilder(context)
@@ -149,8 +184,11 @@ public class BillingManager
         networkManager.removeCallback(this);
     }
 
-    /** Initiates Google Play Billing Service. */
-    private void connectToPlayBillingService() {
+    /**
+     * Initiates Google Play Billing Service, if it is not connected already. Called ahead of a
+     * purchase flow to have the service connection ready by then.
+     */
+    public void connectToPlayBillingService() {
         MonetizeApp.printLog(TAG, "connectToPlayBillingService");
         if (!myBillingClient.isReady()) {
             startServiceConnection(
@@ -158,9 +196,19 @@ public class BillingManager
                         // IAB is fully set up. Now, let's get an inventory of stuff we own.
                         MonetizeApp.printLog(TAG, "Setup successful. Querying inventory.");
                         myPurchasesResultList.clear();
-                        querySkuDetails();
+                        // Purchases from Google Play Cache are processed and acknowledged now,
+                        // the catalog is queried on any network, as the Store shows it, and the
+                        // history waits for a good network.
                         queryPurchasesLocally();
-                        queryPurchasesHistoryAsync();
+                        networkManager.runWhenQualityIsAtLeast(
+                                NetworkQuality.POOR, "querySkuDetails", this::querySkuDetails);
+                        // The history is mostly synced by PurchaseSyncWorker in background.
+                        networkManager.runWhenQualityIsAtLeast(
+                                NetworkQuality.GOOD,
+                                "syncPurchaseHistory",
+                                () ->
+                                        syncPurchaseHistory(
+                                                FOREGROUND_SYNC_INTERVAL_IN_MILLIS, null));
                     });
         }
     }
@@ -219,54 +267,122 @@ public class BillingManager
     }
 
     /**
-     * Has runnable implementation of querying InApp and Subscription purchases from Google Play
-     * Remote Server.
+     * Syncs the purchase history from Google Play Remote Server, and stores only the records newer
+     * than the watermark, which is the purchase time of the newest record synced before. The
+     * watermark moves forward once the records are stored.
+     *
+     * @param minIntervalInMillis The sync is skipped if the last one finished within this time.
+     * @param callback Called in background once the sync is finished, or null.
      */
-    private void queryPurchasesHistoryAsync() {
-        final List<PurchaseHistoryRecord> purchasesList = new ArrayList<>();
-        queryPurchaseHistoryAsync(
-                purchasesList,
-                SkuType.INAPP,
+    public void syncPurchaseHistory(
+            long minIntervalInMillis, @Nullable PurchaseSyncCallback callback) {
+        ioExecutor.execute(
+                WorkExecutor.Lane.BACKGROUND,
+                "BillingManager.syncPurchaseHistory",
                 () -> {
-                    if (areSubscriptionsSupported()) {
-                        queryPurchaseHistoryAsync(purchasesList, SkuType.SUBS, null);
+                    final SharedPreferences preferences = getPurchaseSyncPreferences();
+                    final long lastSyncTime = preferences.getLong(KEY_LAST_SYNC_TIME, 0);
+                    final long watermark = preferences.getLong(KEY_WATERMARK, 0);
+                    if (System.currentTimeMillis() - lastSyncTime < minIntervalInMillis) {
+                        MonetizeApp.printLog(TAG, "syncPurchaseHistory: synced recently");
+                        notifyPurchaseSyncFinished(callback, true);
+                        return;
                     }
+                    handler.post(() -> queryPurchaseHistorySince(watermark, callback));
                 });
     }
 
     /**
-     * Queries InApp and Subscribed purchase results from Google Play Remote Server.
+     * Queries InApp and Subscribed purchase history from Google Play Remote Server, and stores the
+     * records newer than the given watermark.
      *
-     * @param purchases this list contains all the product purchases made, has InApp and
-     *     Subscription purchased results.
-     * @param skuType InApp or Subscription.
-     * @param executeWhenFinished Once the InApp product purchase results are given, then
-     *     subscription based purchase results are queried and results are placed into the {@link
-     *     #myPurchasesResultList}
+     * @param watermark The purchase time of the newest record synced before.
+     * @param callback Called once the sync is finished, or null.
      */
-    private void queryPurchaseHistoryAsync(
-            final List<PurchaseHistoryRecord> purchases,
-            final @SkuType String skuType,
-            final Runnable executeWhenFinished) {
-        PurchaseHistoryResponseListener listener =
+    private void queryPurchaseHistorySince(
+            long watermark, @Nullable PurchaseSyncCallback callback) {
+        final List<PurchaseHistoryRecord> records = new ArrayList<>();
+        final PurchaseHistoryResponseListener subsListener =
                 (billingResult, list) -> {
-                    if (billingResult.getResponseCode() == BillingResponseCode.OK && list != null) {
-                        purchases.addAll(list);
-                        if (executeWhenFinished != null) {
-                            executeWhenFinished.run();
-                        }
-                    } else {
-                        MonetizeApp.printLog(
-                                TAG,
-                                "queryPurchaseHistoryAsync() got an error response code: "
-                                        + billingResult.getResponseCode());
-                        logErrorType(billingResult);
+                    if (billingResult.getResponseCode() != BillingResponseCode.OK || list == null) {
+                        onPurchaseHistoryError(billingResult, callback);
+                        return;
                     }
-                    if (executeWhenFinished == null) {
-                        storePurchaseHistoryRecordsLocally(purchases);
+                    records.addAll(list);
+                    storeNewPurchaseHistoryRecords(records, watermark, callback);
+                };
+        final PurchaseHistoryResponseListener inAppListener =
+                (billingResult, list) -> {
+                    if (billingResult.getResponseCode() != BillingResponseCode.OK || list == null) {
+                        onPurchaseHistoryError(billingResult, callback);
+                        return;
+                    }
+                    records.addAll(list);
+                    if (areSubscriptionsSupported()) {
+                        myBillingClient.queryPurchaseHistoryAsync(SkuType.SUBS, subsListener);
+                    } else {
+                        storeNewPurchaseHistoryRecords(records, watermark, callback);
                     }
                 };
-        executeServiceRequest(() -> myBillingClient.queryPurchaseHistoryAsync(skuType, listener));
+        executeServiceRequest(
+                () -> myBillingClient.queryPurchaseHistoryAsync(SkuType.INAPP, inAppListener));
+    }
+
+    private void onPurchaseHistoryError(
+            @NonNull BillingResult billingResult, @Nullable PurchaseSyncCallback callback) {
+        MonetizeApp.printLog(
+                TAG,
+                "queryPurchaseHistoryAsync() got an error response code: "
+                        + billingResult.getResponseCode());
+        logErrorType(billingResult);
+        notifyPurchaseSyncFinished(callback, false);
+    }
+
+    /**
+     * Stores the purchase history records newer than the watermark, and moves the watermark to the
+     * newest of them.
+     *
+     * @param records The purchase history records from Google Play Remote Server.
+     * @param watermark The purchase time of the newest record synced before.
+     * @param callback Called once the records are stored, or null.
+     */
+    private void storeNewPurchaseHistoryRecords(
+            @NonNull List<PurchaseHistoryRecord> records,
+            long watermark,
+            @Nullable PurchaseSyncCallback callback) {
+        final List<PurchaseHistoryRecord> newRecords = new ArrayList<>();
+        long newWatermark = watermark;
+        for (PurchaseHistoryRecord record : records) {
+            if (record.getPurchaseTime() > watermark) {
+                newRecords.add(record);
+                newWatermark = Math.max(newWatermark, record.getPurchaseTime());
+            }
+        }
+        MonetizeApp.printLog(
+                TAG, "purchase history records: " + records.size() + ", new: " + newRecords.size());
+        final long syncedWatermark = newWatermark;
+        storePurchaseHistoryRecordsLocally(
+                newRecords,
+                () -> {
+                    getPurchaseSyncPreferences()
+                            .edit()
+                            .putLong(KEY_WATERMARK, syncedWatermark)
+                            .putLong(KEY_LAST_SYNC_TIME, System.currentTimeMillis())
+                            .apply();
+                    notifyPurchaseSyncFinished(callback, true);
+                });
+    }
+
+    @NonNull
+    private SharedPreferences getPurchaseSyncPreferences() {
+        return context.getSharedPreferences(PURCHASE_SYNC_PREFERENCES, Context.MODE_PRIVATE);
+    }
+
+    private static void notifyPurchaseSyncFinished(
+            @Nullable PurchaseSyncCallback callback, boolean isSuccessful) {
+        if (callback != null) {
+            callback.onPurchaseSyncFinished(isSuccessful);
+        }
     }
 
     /**
@@ -319,6 +435,7 @@ public class BillingManager
                     if (billingResult.getResponseCode() == BillingResponseCode.OK) {
                         MonetizeApp.printLog(
                                 TAG, "onAcknowledgePurchaseResponse: " + BillingResponseCode.OK);
+                        markPurchaseFunnel(purchase, PurchaseFunnelTracer.Stage.ACKNOWLEDGED);
                     } else {
                         MonetizeApp.printLog(
                                 TAG,
@@ -335,13 +452,29 @@ public class BillingManager
         MonetizeApp.printLog(
                 TAG, "onPurchasesUpdate() responseCode: " + billingResult.getResponseCode());
         if (billingResult.getResponseCode() == BillingResponseCode.OK && purchases != null) {
+            for (Purchase purchase : purchases) {
+                purchaseFunnelTracer.markUpdated(purchase.getPurchaseToken(), purchase.getSkus());
+            }
             processPurchases(purchases);
         } else {
             // Handle any other error codes.
+            purchaseFunnelTracer.abandonLaunched(
+                    "purchase flow ended with response: " + billingResult.getResponseCode());
             logErrorType(billingResult);
         }
     }
 
+    /**
+     * Marks that a purchase made by the user has reached the given stage.
+     *
+     * @param purchase the purchase result contains Purchase Details.
+     * @param stage The stage that the purchase has reached.
+     */
+    private void markPurchaseFunnel(
+            @NonNull Purchase purchase, @NonNull PurchaseFunnelTracer.Stage stage) {
+        purchaseFunnelTracer.mark(purchase.getPurchaseToken(), stage);
+    }
+
     /**
      * Adds purchase results to the {@link #myPurchasesResultList} after successful purchase.
      *
@@ -367,24 +500,73 @@ public class BillingManager
             billingPurchaseDetails.purchaseTime = purchase.getPurchaseTime();
             billingPurchaseDetailsList.add(billingPurchaseDetails);
         }
-        workExecutor.execute(() -> appDatabase.insertPurchaseDetails(billingPurchaseDetailsList));
+        tableWriteExecutor.execute(
+                PURCHASE_DETAILS_TABLE,
+                WorkExecutor.Lane.USER_VISIBLE,
+                "BillingManager.storePurchaseResultsLocally",
+                () -> {
+                    appDatabase.insertPurchaseDetails(billingPurchaseDetailsList);
+                    for (BillingPurchaseDetails billingPurchaseDetails :
+                            billingPurchaseDetailsList) {
+                        purchaseFunnelTracer.mark(
+                                billingPurchaseDetails.purchaseToken,
+                                PurchaseFunnelTracer.Stage.STORED);
+                    }
+                });
     }
 
     /**
      * Stores Purchase Details on local storage.
      *
      * @param purchases list of Purchase Details returned from the queries.
+     * @param onStored Runs in background once the purchase details are stored.
      */
-    private void storePurchaseHistoryRecordsLocally(List<PurchaseHistoryRecord> purchases) {
-        final List<BillingPurchaseDetails> billingPurchaseDetailsList = new ArrayList<>();
-        for (PurchaseHistoryRecord purchase : purchases) {
-            BillingPurchaseDetails billingPurchaseDetails = new BillingPurchaseDetails();
-            billingPurchaseDetails.purchaseToken = purchase.getPurchaseToken();
-            billingPurchaseDetails.skuID = purchase.getSkus().stream().findFirst().orElse("");
-            billingPurchaseDetails.purchaseTime = purchase.getPurchaseTime();
-            billingPurchaseDetailsList.add(billingPurchaseDetails);
-        }
-        workExecutor.execute(() -> appDatabase.insertPurchaseDetails(billingPurchaseDetailsList));
+    private void storePurchaseHistoryRecordsLocally(
+            List<PurchaseHistoryRecord> purchases, @NonNull Runnable onStored) {
+        final PurchaseRecordSource purchaseRecordSource =
+                new PurchaseRecordSource() {
+                    @Override
+                    public int size() {
+                        return purchases.size();
+                    }
+
+                    @NonNull
+                    @Override
+                    public String getPurchaseToken(int index) {
+                        return purchases.get(index).getPurchaseToken();
+                    }
+
+                    @NonNull
+                    @Override
+                    public String getOrderID(int index) {
+                        // Purchase History Records do not have an Order ID.
+                        return "";
+                    }
+
+                    @NonNull
+                    @Override
+                    public String getSkuID(int index) {
+                        final List<String> skus = purchases.get(index).getSkus();
+                        return skus.isEmpty() ? "" : skus.get(0);
+                    }
+
+                    @Override
+                    public long getPurchaseTime(int index) {
+                        return purchases.get(index).getPurchaseTime();
+                    }
+                };
+        tableWriteExecutor.execute(
+                PURCHASE_DETAILS_TABLE,
+                WorkExecutor.Lane.BACKGROUND,
+                "BillingManager.storePurchaseHistoryRecordsLocally",
+                () -> {
+                    appDatabase.bulkInsertPurchaseDetails(
+                            purchaseRecordSource, AppDatabase.BULK_INSERT_CHUNK_SIZE);
+                    appDatabase.compactPurchaseDetails(
+                            BillingConstants.SKU_BUY_APPLE,
+                            CONSUMABLE_PURCHASE_RETENTION_IN_MILLIS);
+                    onStored.run();
+                });
     }
 
     /**
@@ -412,6 +594,7 @@ public class BillingManager
                     if (billingResult.getResponseCode() == BillingResponseCode.OK) {
                         MonetizeApp.printLog(
                                 TAG, "onConsumeResponse, Purchase Token: " + purchaseToken);
+                        markPurchaseFunnel(purchase, PurchaseFunnelTracer.Stage.ACKNOWLEDGED);
                     } else {
                         MonetizeApp.printLog(
                                 TAG, "onConsumeResponse: " + billingResult.getDebugMessage());
@@ -478,13 +661,18 @@ public class BillingManager
     }
 
     /**
-     * Notifies billing error message to all the registered clients.
+     * Notifies billing error message to all the registered clients on the next frame. The same
+     * error that is raised again before then is notified once.
      *
      * @param id A StringResID {@link StringRes}
      */
     private void notifyBillingError(@StringRes int id) {
-        MonetizeApp.showToast(context, id);
-        billingCallbacks.forEach(cb -> cb.onBillingError(context.getString(id)));
+        frameDispatcher.dispatch(
+                TAG + ".notifyBillingError:" + id,
+                () -> {
+                    MonetizeApp.showToast(context, id);
+                    billingCallbacks.forEach(cb -> cb.onBillingError(context.getString(id)));
+                });
     }
 
     /**
@@ -602,16 +790,45 @@ public class BillingManager
     public void initiatePurchaseFlow(@NonNull Activity activity, @NonNull SkuDetails skuDetails) {
         if (skuDetails.getType().equals(SkuType.SUBS) && areSubscriptionsSupported()
                 || skuDetails.getType().equals(SkuType.INAPP)) {
-            final BillingFlowParams purchaseParams =
-                    BillingFlowParams.newBuilder().setSkuDetails(skuDetails).build();
-            executeServiceRequest(
-                    () -> {
-                        MonetizeApp.printLog(TAG, "Launching in-app purchase flow.");
-                        myBillingClient.launchBillingFlow(activity, purchaseParams);
-                    });
+            launchBillingFlow(
+                    activity,
+                    skuDetails.getSku(),
+                    BillingFlowParams.newBuilder().setSkuDetails(skuDetails).build());
         }
     }
 
+    /**
+     * Start a purchase flow of the Premium Feature with its Billing Flow Params that were made
+     * ahead.
+     *
+     * @param activity requires activity class to initiate purchase flow.
+     * @param premiumOffer The Premium Feature ready to be purchased.
+     */
+    public void launchBillingFlow(@NonNull Activity activity, @NonNull PremiumOffer premiumOffer) {
+        launchBillingFlow(
+                activity, premiumOffer.skuDetails.getSku(), premiumOffer.billingFlowParams);
+    }
+
+    /**
+     * Start a purchase flow with the given Billing Flow Params. The Sku type of the params must be
+     * supported already.
+     *
+     * @param activity requires activity class to initiate purchase flow.
+     * @param skuID The SKU ID of the product to be purchased.
+     * @param purchaseParams The Billing Flow Params of the SKU to be purchased.
+     */
+    private void launchBillingFlow(
+            @NonNull Activity activity,
+            @NonNull String skuID,
+            @NonNull BillingFlowParams purchaseParams) {
+        executeServiceRequest(
+                () -> {
+                    MonetizeApp.printLog(TAG, "Launching in-app purchase flow.");
+                    purchaseFunnelTracer.markLaunched(skuID);
+                    myBillingClient.launchBillingFlow(activity, purchaseParams);
+                });
+    }
+
     /**
      * Checks if subscriptions are supported for current client.
      *
@@ -649,10 +866,25 @@ public class BillingManager
                 billingSkuDetails.skuType =
                         skuDetail.getType().equals(SkuType.SUBS) ? SkuType.SUBS : SkuType.INAPP;
                 billingSkuDetails.skuPrice = skuDetail.getPrice();
+                billingSkuDetails.priceAmountMicros = skuDetail.getPriceAmountMicros();
+                billingSkuDetails.priceCurrencyCode = skuDetail.getPriceCurrencyCode();
+                billingSkuDetails.title = skuDetail.getTitle();
+                billingSkuDetails.description = skuDetail.getDescription();
+                billingSkuDetails.subscriptionPeriod = skuDetail.getSubscriptionPeriod();
                 billingSkuDetails.originalJson = skuDetail.getOriginalJson();
                 billingSkuDetailsList.add(billingSkuDetails);
             }
         }
-        workExecutor.execute(() -> appDatabase.insertSkuDetails(billingSkuDetailsList));
+        tableWriteExecutor.execute(
+                SKU_DETAILS_TABLE,
+                WorkExecutor.Lane.USER_VISIBLE,
+                "BillingManager.storeSkuDetailsLocally",
+                () -> appDatabase.insertSkuDetails(billingSkuDetailsList));
+    }
+
+    /** Notifies the end of a purchase history sync. */
+    public interface PurchaseSyncCallback {
+        /** @param isSuccessful Whether the purchase history is synced and stored. */
+        void onPurchaseSyncFinished(boolean isSuccessful);
     }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.billing;
+
+import androidx.annotation.NonNull;
+import com.android.billingclient.api.BillingFlowParams;
+import com.android.billingclient.api.SkuDetails;
+
+/**
+ * PremiumOffer, the Premium Feature Sku Product which is ready to be purchased. It has its price,
+ * its parsed Sku Details and the Billing Flow Params to launch its purchase flow with.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public final class PremiumOffer {
+
+    @NonNull public final String price;
+    @NonNull public final SkuDetails skuDetails;
+    @NonNull public final BillingFlowParams billingFlowParams;
+
+    /**
+     * Makes the Premium Feature Sku Product ready to be purchased.
+     *
+     * @param skuDetails The Premium Feature SKU Details registered in the Google Play Developer
+     *     Console.
+     */
+    public PremiumOffer(@NonNull SkuDetails skuDetails) {
+        this.price = skuDetails.getPrice();
+        this.skuDetails = skuDetails;
+        this.billingFlowParams = BillingFlowParams.newBuilder().setSkuDetails(skuDetails).build();
+    }
+}
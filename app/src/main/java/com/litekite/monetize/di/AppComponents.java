@@ -16,7 +16,10 @@
 package com.litekite.monetize.di;
 
 import android.content.Context;
+import com.litekite.monetize.base.FrameDispatcher;
 import com.litekite.monetize.billing.BillingManager;
+import com.litekite.monetize.metrics.FrameMetricsCollector;
+import com.litekite.monetize.metrics.PurchaseFunnelTracer;
 import com.litekite.monetize.network.NetworkManager;
 import com.litekite.monetize.room.database.AppDatabase;
 import com.litekite.monetize.worker.WorkExecutor;
@@ -39,22 +42,39 @@ import javax.inject.Singleton;
 @InstallIn(SingletonComponent.class)
 public class AppComponents {
 
+    // CPU-bound work keeps a core busy, so it has a thread per available core.
+    private static final int CPU_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    // Blocking I/O mostly waits, so it has twice as many threads, and at least four.
+    private static final int IO_POOL_SIZE = Math.max(4, 2 * CPU_POOL_SIZE);
+
     @Singleton
     @Provides
-    static AppDatabase provideAppDatabase(@ApplicationContext Context context) {
-        return AppDatabase.getAppDatabase(context);
+    static AppDatabase provideAppDatabase(
+            @ApplicationContext Context context, @IoExecutor WorkExecutor ioExecutor) {
+        return AppDatabase.getAppDatabase(
+                context,
+                ioExecutor.asExecutor(WorkExecutor.Lane.USER_VISIBLE, "AppDatabase.query"));
     }
 
     @Singleton
     @Provides
-    static NetworkManager provideNetworkManager(@ApplicationContext Context context) {
-        return new NetworkManager(context);
+    static NetworkManager provideNetworkManager(
+            @ApplicationContext Context context, FrameDispatcher frameDispatcher) {
+        return new NetworkManager(context, frameDispatcher);
     }
 
     @Singleton
     @Provides
-    static WorkExecutor provideWorkExecutor() {
-        return new WorkExecutor();
+    @CpuExecutor
+    static WorkExecutor provideCpuExecutor() {
+        return new WorkExecutor(CPU_POOL_SIZE, WorkExecutor.getDefaultLaneConfigs());
+    }
+
+    @Singleton
+    @Provides
+    @IoExecutor
+    static WorkExecutor provideIoExecutor() {
+        return new WorkExecutor(IO_POOL_SIZE, WorkExecutor.getDefaultLaneConfigs());
     }
 
     @Singleton
@@ -63,7 +83,28 @@ public class AppComponents {
             @ApplicationContext Context context,
             AppDatabase appDatabase,
             NetworkManager networkManager,
-            WorkExecutor workExecutor) {
-        return new BillingManager(context, appDatabase, networkManager, workExecutor);
+            @IoExecutor WorkExecutor ioExecutor,
+            PurchaseFunnelTracer purchaseFunnelTracer,
+            FrameDispatcher frameDispatcher) {
+        return new BillingManager(
+                context,
+                appDatabase,
+                networkManager,
+                ioExecutor,
+                purchaseFunnelTracer,
+                frameDispatcher);
+    }
+
+    @Singleton
+    @Provides
+    static PurchaseFunnelTracer providePurchaseFunnelTracer(
+            @ApplicationContext Context context, @IoExecutor WorkExecutor ioExecutor) {
+        return new PurchaseFunnelTracer(context, ioExecutor);
+    }
+
+    @Singleton
+    @Provides
+    static FrameMetricsCollector provideFrameMetricsCollector(@ApplicationContext Context context) {
+        return new FrameMetricsCollector(context);
     }
 }
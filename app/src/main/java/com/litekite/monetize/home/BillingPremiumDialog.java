@@ -28,8 +28,8 @@ import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 import com.litekite.monetize.R;
+import com.litekite.monetize.billing.PremiumOffer;
 import com.litekite.monetize.databinding.DialogBillingPremiumBinding;
-import com.litekite.monetize.room.entity.BillingSkuDetails;
 import dagger.hilt.android.AndroidEntryPoint;
 
 /**
@@ -50,18 +50,12 @@ public class BillingPremiumDialog extends BottomSheetDialogFragment {
     private DialogBillingPremiumBinding dialogBillingPremiumBinding;
 
     /**
-     * Observes changes and updates about the Premium Feature Sku Product which is stored in the
-     * local database.
+     * Observes changes and updates about the Premium Feature Sku Product which is kept ready to be
+     * purchased.
      *
      * <p>Sets Premium Feature Product Price.
      */
-    private final Observer<BillingSkuDetails> premiumSkuDetailsObserver =
-            billingSkuDetails -> {
-                if (billingSkuDetails != null) {
-                    dialogBillingPremiumBinding.tvBillingPrice.setText(billingSkuDetails.skuPrice);
-                    dialogBillingPremiumBinding.executePendingBindings();
-                }
-            };
+    private final Observer<PremiumOffer> premiumOfferObserver = this::setPremiumOffer;
 
     /**
      * Launches BillingPremiumDialog.
@@ -116,14 +110,26 @@ public class BillingPremiumDialog extends BottomSheetDialogFragment {
 
     /**
      * Initializes Presenter BillingPremiumViewModel, BillingViewModel and registers LifeCycle
-     * Observers. Observes Premium Feature Product Sku Details.
+     * Observers. Sets the Premium Feature Product Price that is kept ready already, so that it is
+     * shown on the first frame, and observes it for changes.
      */
     private void init() {
         BillingPremiumVM billingPremiumVM = new ViewModelProvider(this).get(BillingPremiumVM.class);
         dialogBillingPremiumBinding.setPresenter(billingPremiumVM);
         this.getLifecycle().addObserver(billingPremiumVM);
-        billingPremiumVM
-                .getPremiumSkuDetails()
-                .observe(getViewLifecycleOwner(), premiumSkuDetailsObserver);
+        setPremiumOffer(billingPremiumVM.getPremiumOffer().getValue());
+        billingPremiumVM.getPremiumOffer().observe(getViewLifecycleOwner(), premiumOfferObserver);
+    }
+
+    /**
+     * Sets Premium Feature Product Price.
+     *
+     * @param premiumOffer The Premium Feature ready to be purchased.
+     */
+    private void setPremiumOffer(@Nullable PremiumOffer premiumOffer) {
+        if (premiumOffer != null) {
+            dialogBillingPremiumBinding.tvBillingPrice.setText(premiumOffer.price);
+            dialogBillingPremiumBinding.executePendingBindings();
+        }
     }
 }
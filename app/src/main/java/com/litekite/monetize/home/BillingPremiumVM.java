@@ -23,17 +23,16 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LifecycleObserver;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import com.android.billingclient.api.SkuDetails;
 import com.litekite.monetize.R;
 import com.litekite.monetize.billing.BillingCallback;
 import com.litekite.monetize.billing.BillingConstants;
 import com.litekite.monetize.billing.BillingManager;
-import com.litekite.monetize.room.database.AppDatabase;
-import com.litekite.monetize.room.entity.BillingSkuDetails;
+import com.litekite.monetize.billing.PremiumOffer;
+import com.litekite.monetize.metrics.PurchaseFunnelTracer;
+import com.litekite.monetize.repository.BillingRepository;
 import com.litekite.monetize.util.ContextUtil;
 import dagger.hilt.android.lifecycle.HiltViewModel;
 import javax.inject.Inject;
-import org.json.JSONException;
 
 /**
  * BillingPremiumVM, a view model which gets Premium Feature Sku Details from local database, It
@@ -47,35 +46,40 @@ import org.json.JSONException;
 public class BillingPremiumVM extends AndroidViewModel
         implements LifecycleObserver, BillingCallback {
 
-    private final AppDatabase appDatabase;
+    private final BillingRepository billingRepository;
     private final BillingManager billingManager;
-    private LiveData<BillingSkuDetails> premiumSkuDetails = new MutableLiveData<>();
+    private final PurchaseFunnelTracer purchaseFunnelTracer;
+    private LiveData<PremiumOffer> premiumOffer = new MutableLiveData<>();
 
     /**
      * Makes a call to get Premium Feature Sku Details from local database.
      *
      * @param application An Application Instance.
+     * @param billingRepository Gives the Premium Feature ready to be purchased.
      * @param billingManager Provides access to BillingClient which perform Product Purchases from
      *     Google Play Billing Library.
+     * @param purchaseFunnelTracer Traces the purchases made by the user from their tap.
      */
     @Inject
     public BillingPremiumVM(
             @NonNull Application application,
-            @NonNull AppDatabase appDatabase,
-            @NonNull BillingManager billingManager) {
+            @NonNull BillingRepository billingRepository,
+            @NonNull BillingManager billingManager,
+            @NonNull PurchaseFunnelTracer purchaseFunnelTracer) {
         super(application);
-        this.appDatabase = appDatabase;
+        this.billingRepository = billingRepository;
         this.billingManager = billingManager;
+        this.purchaseFunnelTracer = purchaseFunnelTracer;
         // Sync with the local database
         fetchFromDB();
     }
 
     /**
-     * Fetches Premium Feature Sku Details stored in the local database and assigns it to {@link
-     * #premiumSkuDetails} LiveData.
+     * Gets the Premium Feature that is kept ready to be purchased, from the Sku Details stored in
+     * the local database, and assigns it to {@link #premiumOffer} LiveData.
      */
     private void fetchFromDB() {
-        premiumSkuDetails = appDatabase.getSkuDetails(BillingConstants.SKU_UNLOCK_APP_FEATURES);
+        premiumOffer = billingRepository.getPremiumOffer();
     }
 
     /**
@@ -86,18 +90,13 @@ public class BillingPremiumVM extends AndroidViewModel
     public void onClick(@NonNull View v) {
         if (v.getId() == R.id.btn_billing_buy) {
             // Performs Premium Feature Purchase Flow through BillingClient of Google Play
-            // Billing Library.
-            if (premiumSkuDetails.getValue() != null) {
-                BillingSkuDetails billingSkuDetails = premiumSkuDetails.getValue();
-                try {
-                    SkuDetails skuDetails = new SkuDetails(billingSkuDetails.originalJson);
-                    Activity activityContext = ContextUtil.getActivity(v.getContext());
-                    if (activityContext != null) {
-                        billingManager.initiatePurchaseFlow(activityContext, skuDetails);
-                    }
-                } catch (JSONException e) {
-                    e.printStackTrace();
-                }
+            // Billing Library. Its Sku Details are parsed and its Billing Flow Params are made
+            // already.
+            final PremiumOffer offer = premiumOffer.getValue();
+            final Activity activityContext = ContextUtil.getActivity(v.getContext());
+            if (offer != null && activityContext != null) {
+                purchaseFunnelTracer.begin(BillingConstants.SKU_UNLOCK_APP_FEATURES);
+                billingManager.launchBillingFlow(activityContext, offer);
             }
         }
     }
@@ -105,10 +104,10 @@ public class BillingPremiumVM extends AndroidViewModel
     /**
      * A view gets this Premium Feature LiveData and observes for changes and updates with it.
      *
-     * @return a LiveData of Premium Feature Sku Details.
+     * @return a LiveData of Premium Feature ready to be purchased.
      */
     @NonNull
-    public LiveData<BillingSkuDetails> getPremiumSkuDetails() {
-        return premiumSkuDetails;
+    public LiveData<PremiumOffer> getPremiumOffer() {
+        return premiumOffer;
     }
 }
@@ -18,6 +18,8 @@ package com.litekite.monetize.home;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
@@ -27,7 +29,9 @@ import androidx.lifecycle.ViewModelProvider;
 import com.litekite.monetize.R;
 import com.litekite.monetize.base.BaseActivity;
 import com.litekite.monetize.databinding.ActivityHomeBinding;
+import com.litekite.monetize.metrics.PurchaseFunnelTracer;
 import dagger.hilt.android.AndroidEntryPoint;
+import javax.inject.Inject;
 
 /**
  * HomeActivity, users can view their purchases and buy products from store by tapping respective
@@ -40,8 +44,26 @@ import dagger.hilt.android.AndroidEntryPoint;
 @AndroidEntryPoint
 public class HomeActivity extends BaseActivity {
 
+    // Number of products shown by the Store and Purchases lists.
+    private static final int PRE_INFLATED_LIST_ITEMS = 2;
+    private static final String UI_STATE_PREMIUM_DRAWABLES_UPDATE = "premium drawables update";
+
+    @Inject PurchaseFunnelTracer purchaseFunnelTracer;
     private ActivityHomeBinding homeBinding;
 
+    /**
+     * Pre-inflates the list item views of Store and Purchases once this activity has nothing else
+     * to do, so that those lists can show their first frame without inflating.
+     */
+    private final MessageQueue.IdleHandler preInflateIdleHandler =
+            () -> {
+                viewHolderPool.preInflate(
+                        HomeActivity.this, R.layout.adapter_store_item, PRE_INFLATED_LIST_ITEMS);
+                viewHolderPool.preInflate(
+                        HomeActivity.this, R.layout.adapter_purchase_item, PRE_INFLATED_LIST_ITEMS);
+                return false;
+            };
+
     /**
      * A Premium Purchase Observer, observes about whether the Premium Purchase has been already
      * purchased by user or not. If it was purchased, user has granted access for accessing View
@@ -55,6 +77,7 @@ public class HomeActivity extends BaseActivity {
                 if (isPurchased) {
                     BillingPremiumDialog.dismiss(HomeActivity.this);
                 }
+                setUiStateForNextFrame(UI_STATE_PREMIUM_DRAWABLES_UPDATE);
                 HomeVM.setDrawableRight(homeBinding.btnBuyFromStore, isPurchased);
                 HomeVM.setDrawableEnd(homeBinding.btnBuyFromStore, isPurchased);
                 HomeVM.setDrawableRight(homeBinding.btnViewYourPurchases, isPurchased);
@@ -62,6 +85,17 @@ public class HomeActivity extends BaseActivity {
                 homeBinding.executePendingBindings();
             };
 
+    /**
+     * A Premium Purchase Token Observer, only traces the purchase of the Premium Feature up to the
+     * features it unlocks, which {@link #isPremiumPurchasedObserver} shows.
+     */
+    private final Observer<String> premiumPurchaseTokenObserver =
+            purchaseToken -> {
+                if (purchaseToken != null) {
+                    purchaseFunnelTracer.mark(purchaseToken, PurchaseFunnelTracer.Stage.SHOWN);
+                }
+            };
+
     /**
      * Launches HomeActivity.
      *
@@ -82,6 +116,18 @@ public class HomeActivity extends BaseActivity {
         init();
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        Looper.myQueue().addIdleHandler(preInflateIdleHandler);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        Looper.myQueue().removeIdleHandler(preInflateIdleHandler);
+    }
+
     /**
      * Sets Toolbar. Initializes Presenter HomeViewModel, BillingViewModel and registers LifeCycle
      * Observers. Observes Premium Purchase.
@@ -96,5 +142,6 @@ public class HomeActivity extends BaseActivity {
         homeBinding.setPresenter(homeVM);
         this.getLifecycle().addObserver(homeVM);
         homeVM.getIsPremiumPurchased().observe(this, isPremiumPurchasedObserver);
+        homeVM.getPremiumPurchaseToken().observe(this, premiumPurchaseTokenObserver);
     }
 }
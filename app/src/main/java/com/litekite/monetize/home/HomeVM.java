@@ -21,16 +21,18 @@ import android.widget.Button;
 import androidx.annotation.NonNull;
 import androidx.databinding.BindingAdapter;
 import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.LifecycleObserver;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.OnLifecycleEvent;
 import com.litekite.monetize.R;
 import com.litekite.monetize.base.BaseActivity;
 import com.litekite.monetize.billing.BillingCallback;
 import com.litekite.monetize.billing.BillingConstants;
 import com.litekite.monetize.network.NetworkManager;
 import com.litekite.monetize.purchase.PurchasesActivity;
-import com.litekite.monetize.room.database.AppDatabase;
+import com.litekite.monetize.repository.BillingRepository;
 import com.litekite.monetize.store.StoreActivity;
 import dagger.hilt.android.lifecycle.HiltViewModel;
 import javax.inject.Inject;
@@ -46,7 +48,9 @@ import javax.inject.Inject;
 @HiltViewModel
 public class HomeVM extends AndroidViewModel implements LifecycleObserver, BillingCallback {
 
-    private final AppDatabase appDatabase;
+    private final BillingRepository billingRepository;
+    private final NetworkManager networkManager;
+    private LiveData<String> premiumPurchaseToken = new MutableLiveData<>();
     private LiveData<Boolean> isPremiumPurchased = new MutableLiveData<>();
 
     /**
@@ -54,11 +58,18 @@ public class HomeVM extends AndroidViewModel implements LifecycleObserver, Billi
      * database.
      *
      * @param application An Application Instance.
+     * @param billingRepository Gives the Purchase Status of Premium Feature and prefetches the list
+     *     items of Store and Purchases.
+     * @param networkManager Gives the network connectivity status.
      */
     @Inject
-    public HomeVM(@NonNull Application application, @NonNull AppDatabase appDatabase) {
+    public HomeVM(
+            @NonNull Application application,
+            @NonNull BillingRepository billingRepository,
+            @NonNull NetworkManager networkManager) {
         super(application);
-        this.appDatabase = appDatabase;
+        this.billingRepository = billingRepository;
+        this.networkManager = networkManager;
         // Sync with the local database
         fetchFromDB();
     }
@@ -93,11 +104,23 @@ public class HomeVM extends AndroidViewModel implements LifecycleObserver, Billi
 
     /**
      * Fetches and checks whether the Premium Feature was purchased and stored in the local database
-     * and assigns it to {@link #isPremiumPurchased} LiveData.
+     * and assigns it to {@link #isPremiumPurchased} LiveData, along with the Purchase Token of the
+     * Premium Feature to {@link #premiumPurchaseToken} LiveData.
      */
     private void fetchFromDB() {
         isPremiumPurchased =
-                appDatabase.getIsThisSkuPurchased(BillingConstants.SKU_UNLOCK_APP_FEATURES);
+                billingRepository.getIsThisSkuPurchased(BillingConstants.SKU_UNLOCK_APP_FEATURES);
+        premiumPurchaseToken =
+                billingRepository.getLastPurchaseToken(BillingConstants.SKU_UNLOCK_APP_FEATURES);
+    }
+
+    /**
+     * Starts loading the list items of Store and Purchases while Home is visible, so that those
+     * lists are shown populated when they are opened from here.
+     */
+    @OnLifecycleEvent(Lifecycle.Event.ON_RESUME)
+    public void onResume() {
+        billingRepository.prefetch();
     }
 
     /**
@@ -111,6 +134,18 @@ public class HomeVM extends AndroidViewModel implements LifecycleObserver, Billi
         return isPremiumPurchased;
     }
 
+    /**
+     * A view gets this LiveData of the Premium Feature Purchase Token and observes for changes and
+     * updates with it. It is only used to trace the purchase of the Premium Feature, whose Purchase
+     * Status is given by {@link #getIsPremiumPurchased()}.
+     *
+     * @return a LiveData of Premium Feature Purchase Token, null if it was not purchased.
+     */
+    @NonNull
+    public LiveData<String> getPremiumPurchaseToken() {
+        return premiumPurchaseToken;
+    }
+
     /**
      * Handles Click Events from View.
      *
@@ -139,7 +174,7 @@ public class HomeVM extends AndroidViewModel implements LifecycleObserver, Billi
     private boolean checkIsPremiumPurchased(View v) {
         boolean isPurchased =
                 isPremiumPurchased.getValue() != null ? isPremiumPurchased.getValue() : false;
-        if (!isPurchased && !NetworkManager.isOnline(v.getContext())) {
+        if (!isPurchased && !networkManager.isOnline()) {
             BaseActivity.showSnackBar(v, R.string.err_no_internet);
             return false;
         }
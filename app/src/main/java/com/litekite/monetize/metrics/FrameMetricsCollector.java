@@ -0,0 +1,394 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.metrics;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.FrameMetrics;
+import android.view.Window;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import com.litekite.monetize.BuildConfig;
+import com.litekite.monetize.app.MonetizeApp;
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * FrameMetricsCollector, records the duration of every frame drawn by the resumed activities into a
+ * histogram per activity, with {@link Window#addOnFrameMetricsAvailableListener}. A frame that
+ * takes longer than the display's frame budget is a slow frame, and it is kept along with the UI
+ * state that the activity was in when the frame started, and the stage that took most of it.
+ *
+ * <p>It is enabled by default on debug builds and can be toggled at runtime with {@link
+ * #setEnabled(boolean)}. The histograms are logged and written to {@link #REPORT_FILE_NAME} in the
+ * app's files directory whenever an activity is paused, if any frame was recorded since they were
+ * last written.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@Singleton
+public class FrameMetricsCollector {
+
+    private static final String TAG = FrameMetricsCollector.class.getName();
+
+    public static final String REPORT_FILE_NAME = "frame_metrics_report.txt";
+    public static final String UI_STATE_IDLE = "idle";
+    // The UI state of the slow frames on Android versions that do not report when a frame started.
+    private static final String UI_STATE_UNKNOWN = "unknown";
+
+    // Upper bounds of the histogram buckets in milliseconds, the last bucket has no bound.
+    private static final int[] BUCKET_BOUNDS_IN_MILLIS = {8, 12, 16, 20, 25, 33, 50, 100, 200, 700};
+    // Frames longer than this are frozen frames, as in Android vitals.
+    private static final long FROZEN_FRAME_IN_MILLIS = 700;
+    private static final int MAX_SLOW_FRAMES = 32;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    // The stages of a frame that a slow frame is attributed to.
+    private static final int[] FRAME_STAGES = {
+        FrameMetrics.UNKNOWN_DELAY_DURATION,
+        FrameMetrics.INPUT_HANDLING_DURATION,
+        FrameMetrics.ANIMATION_DURATION,
+        FrameMetrics.LAYOUT_MEASURE_DURATION,
+        FrameMetrics.DRAW_DURATION,
+        FrameMetrics.SYNC_DURATION,
+        FrameMetrics.COMMAND_ISSUE_DURATION,
+        FrameMetrics.SWAP_BUFFERS_DURATION
+    };
+    private static final String[] FRAME_STAGE_NAMES = {
+        "delay", "input", "animation", "layout", "draw", "sync", "command", "swap"
+    };
+
+    private final Context context;
+    // Screens by their activity name, in the order they were first resumed.
+    private final Map<String, Screen> screens = new LinkedHashMap<>();
+    // The resumed activities and their listeners, that are registered while enabled.
+    private final Map<Activity, Screen> resumedActivities = new HashMap<>();
+    private final SlowFrame[] slowFrames = new SlowFrame[MAX_SLOW_FRAMES];
+    private int slowFrameCount;
+    // Whether any frame was recorded since the report was last written.
+    private boolean reportChanged;
+    private volatile boolean enabled = BuildConfig.DEBUG;
+    private Handler handler;
+
+    @Inject
+    public FrameMetricsCollector(@ApplicationContext @NonNull Context context) {
+        this.context = context;
+        for (int i = 0; i < MAX_SLOW_FRAMES; i++) {
+            slowFrames[i] = new SlowFrame();
+        }
+    }
+
+    /**
+     * Enables or disables collecting frame metrics. The resumed activities are registered or
+     * unregistered right away, and the collected frames are kept.
+     *
+     * @param enabled Whether to collect frame metrics.
+     */
+    @MainThread
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        for (Map.Entry<Activity, Screen> entry : resumedActivities.entrySet()) {
+            if (enabled) {
+                register(entry.getKey(), entry.getValue());
+            } else {
+                entry.getKey().getWindow().removeOnFrameMetricsAvailableListener(entry.getValue());
+            }
+        }
+        MonetizeApp.printLog(TAG, "enabled: " + enabled);
+    }
+
+    /** @return whether frame metrics are being collected. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts collecting the frames of the given activity, until it is paused.
+     *
+     * @param activity A resumed activity.
+     */
+    @MainThread
+    public void onActivityResumed(@NonNull Activity activity) {
+        final Screen screen = getScreen(activity);
+        resumedActivities.put(activity, screen);
+        if (enabled) {
+            register(activity, screen);
+        }
+    }
+
+    /**
+     * Stops collecting the frames of the given activity and writes the report.
+     *
+     * @param activity A paused activity.
+     */
+    @MainThread
+    public void onActivityPaused(@NonNull Activity activity) {
+        final Screen screen = resumedActivities.remove(activity);
+        if (screen == null || !enabled) {
+            return;
+        }
+        activity.getWindow().removeOnFrameMetricsAvailableListener(screen);
+        writeReport();
+    }
+
+    /**
+     * Sets the UI state of the given activity, which its slow frames are tagged with. A frame is
+     * tagged with the state that was set when the frame started.
+     *
+     * @param activity An activity.
+     * @param uiState What the activity is doing, e.g. "list diff", or {@link #UI_STATE_IDLE}.
+     */
+    @MainThread
+    public void setUiState(@NonNull Activity activity, @NonNull String uiState) {
+        final Screen screen = getScreen(activity);
+        final UiState current = screen.uiState;
+        if (!current.state.equals(uiState)) {
+            screen.uiState = new UiState(uiState, System.nanoTime(), current.state);
+        }
+    }
+
+    /** @return a report of the frame duration histograms and the latest slow frames. */
+    @NonNull
+    public synchronized String getReport() {
+        final StringBuilder report = new StringBuilder();
+        report.append("Frame metrics, enabled: ").append(enabled).append('\n');
+        report.append(
+                String.format(
+                        Locale.US,
+                        "%-22s %7s %6s %6s %5s |",
+                        "screen",
+                        "n",
+                        "slow",
+                        "frozen",
+                        "lost"));
+        for (int bound : BUCKET_BOUNDS_IN_MILLIS) {
+            report.append(String.format(Locale.US, " <%-4d", bound));
+        }
+        report.append(" >=").append(BUCKET_BOUNDS_IN_MILLIS[BUCKET_BOUNDS_IN_MILLIS.length - 1]);
+        report.append('\n');
+        for (Screen screen : screens.values()) {
+            report.append(
+                    String.format(
+                            Locale.US,
+                            "%-22s %7d %6d %6d %5d |",
+                            screen.name,
+                            screen.frameCount,
+                            screen.slowFrameCount,
+                            screen.frozenFrameCount,
+                            screen.droppedReportCount));
+            for (long count : screen.buckets) {
+                report.append(String.format(Locale.US, " %5d", count));
+            }
+            report.append('\n');
+        }
+        final int count = Math.min(slowFrameCount, MAX_SLOW_FRAMES);
+        report.append("Latest slow frames: ").append(count).append('\n');
+        for (int i = 0; i < count; i++) {
+            final SlowFrame slowFrame = slowFrames[(slowFrameCount - count + i) % MAX_SLOW_FRAMES];
+            report.append(
+                    String.format(
+                            Locale.US,
+                            "%-22s %6.1fms budget %4.1fms, mostly %-9s ui state: %s%s%n",
+                            slowFrame.screenName,
+                            slowFrame.durationInNanos / (float) NANOS_PER_MILLI,
+                            slowFrame.budgetInNanos / (float) NANOS_PER_MILLI,
+                            slowFrame.stage,
+                            slowFrame.firstFrame ? "first frame, " : "",
+                            slowFrame.uiState));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Logs the report and writes it to {@link #REPORT_FILE_NAME} in background, if any frame was
+     * recorded since it was last written.
+     */
+    @MainThread
+    public void writeReport() {
+        final String report;
+        synchronized (this) {
+            if (!reportChanged) {
+                return;
+            }
+            reportChanged = false;
+            report = getReport();
+        }
+        MonetizeApp.printLog(TAG, report);
+        getHandler()
+                .post(
+                        () -> {
+                            final File reportFile =
+                                    new File(context.getFilesDir(), REPORT_FILE_NAME);
+                            try (Writer writer = new FileWriter(reportFile)) {
+                                writer.write(report);
+                            } catch (IOException e) {
+                                e.printStackTrace();
+                            }
+                        });
+    }
+
+    private void register(@NonNull Activity activity, @NonNull Screen screen) {
+        // The budget follows the refresh rate of the display the activity is on.
+        @SuppressWarnings("deprecation")
+        final float refreshRate = activity.getWindowManager().getDefaultDisplay().getRefreshRate();
+        screen.frameBudgetInNanos = (long) (1_000_000_000L / Math.max(refreshRate, 1f));
+        activity.getWindow().addOnFrameMetricsAvailableListener(screen, getHandler());
+    }
+
+    @NonNull
+    private synchronized Screen getScreen(@NonNull Activity activity) {
+        final String name = activity.getClass().getSimpleName();
+        Screen screen = screens.get(name);
+        if (screen == null) {
+            screen = new Screen(name);
+            screens.put(name, screen);
+        }
+        return screen;
+    }
+
+    @NonNull
+    private Handler getHandler() {
+        if (handler == null) {
+            final HandlerThread thread = new HandlerThread(TAG);
+            thread.start();
+            handler = new Handler(thread.getLooper());
+        }
+        return handler;
+    }
+
+    private synchronized void record(
+            @NonNull Screen screen, @NonNull FrameMetrics frameMetrics, int dropCount) {
+        final long durationInNanos = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+        final long durationInMillis = durationInNanos / NANOS_PER_MILLI;
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_IN_MILLIS.length
+                && durationInMillis >= BUCKET_BOUNDS_IN_MILLIS[bucket]) {
+            bucket++;
+        }
+        screen.buckets[bucket]++;
+        screen.frameCount++;
+        reportChanged = true;
+        // Frames whose metrics could not be reported in time are dropped.
+        screen.droppedReportCount += dropCount;
+        if (durationInNanos <= screen.frameBudgetInNanos) {
+            return;
+        }
+        screen.slowFrameCount++;
+        if (durationInMillis >= FROZEN_FRAME_IN_MILLIS) {
+            screen.frozenFrameCount++;
+        }
+        // The slow frames are kept in a ring of preallocated entries, the oldest is overwritten.
+        final SlowFrame slowFrame = slowFrames[slowFrameCount++ % MAX_SLOW_FRAMES];
+        slowFrame.screenName = screen.name;
+        slowFrame.durationInNanos = durationInNanos;
+        slowFrame.budgetInNanos = screen.frameBudgetInNanos;
+        slowFrame.stage = getSlowestStage(frameMetrics);
+        slowFrame.uiState = getUiState(screen, frameMetrics);
+        slowFrame.firstFrame = frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1;
+    }
+
+    @NonNull
+    private static String getSlowestStage(@NonNull FrameMetrics frameMetrics) {
+        int slowest = 0;
+        long slowestDuration = -1;
+        for (int i = 0; i < FRAME_STAGES.length; i++) {
+            final long duration = frameMetrics.getMetric(FRAME_STAGES[i]);
+            if (duration > slowestDuration) {
+                slowest = i;
+                slowestDuration = duration;
+            }
+        }
+        return FRAME_STAGE_NAMES[slowest];
+    }
+
+    @NonNull
+    private static String getUiState(@NonNull Screen screen, @NonNull FrameMetrics frameMetrics) {
+        // The time a frame started at is reported from Android O only, older versions skip it.
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return UI_STATE_UNKNOWN;
+        }
+        final UiState uiState = screen.uiState;
+        final long frameStart = frameMetrics.getMetric(FrameMetrics.INTENDED_VSYNC_TIMESTAMP);
+        return frameStart < uiState.sinceNanos ? uiState.previousState : uiState.state;
+    }
+
+    /**
+     * A UI state and the previous one, with the time it was set at, on the same clock as {@link
+     * FrameMetrics#INTENDED_VSYNC_TIMESTAMP}.
+     */
+    private static final class UiState {
+
+        final String state;
+        final long sinceNanos;
+        final String previousState;
+
+        UiState(@NonNull String state, long sinceNanos, @NonNull String previousState) {
+            this.state = state;
+            this.sinceNanos = sinceNanos;
+            this.previousState = previousState;
+        }
+    }
+
+    /** The frames collected from an activity, and its listener. */
+    private final class Screen implements Window.OnFrameMetricsAvailableListener {
+
+        final String name;
+        final long[] buckets = new long[BUCKET_BOUNDS_IN_MILLIS.length + 1];
+        long frameCount;
+        long slowFrameCount;
+        long frozenFrameCount;
+        long droppedReportCount;
+        volatile long frameBudgetInNanos = 16_666_667;
+        volatile UiState uiState = new UiState(UI_STATE_IDLE, 0, UI_STATE_IDLE);
+
+        Screen(@NonNull String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void onFrameMetricsAvailable(
+                Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+            record(this, frameMetrics, dropCountSinceLastInvocation);
+        }
+    }
+
+    /** A slow frame, with what it is attributed to. */
+    private static final class SlowFrame {
+
+        String screenName;
+        long durationInNanos;
+        long budgetInNanos;
+        String stage;
+        String uiState;
+        boolean firstFrame;
+    }
+}
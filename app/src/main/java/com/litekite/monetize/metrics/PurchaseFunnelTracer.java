@@ -0,0 +1,318 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.metrics;
+
+import android.content.Context;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import com.litekite.monetize.app.MonetizeApp;
+import com.litekite.monetize.di.IoExecutor;
+import com.litekite.monetize.worker.WorkExecutor;
+import dagger.hilt.android.qualifiers.ApplicationContext;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * PurchaseFunnelTracer, traces a purchase from the user's tap to the UI showing it, through the
+ * stages of {@link Stage}. Each purchase gets a trace ID, which correlates its stages across the
+ * view models, {@link com.litekite.monetize.billing.BillingManager} and the local database.
+ *
+ * <p>A trace is started only by the user's tap, and is keyed by its SKU ID until Google Play
+ * Billing Library gives the purchase back, since only one purchase flow of a SKU can be in
+ * progress. From then on, it is keyed by the purchase token of that purchase, so the later stages
+ * are marked only for that purchase, and not for the other purchases of the same SKU that are
+ * queried or stored again.
+ *
+ * <p>The latencies of the completed traces are kept per stage, and a report of their percentiles is
+ * logged and written to {@link #REPORT_FILE_NAME} in the app's files directory.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@Singleton
+public class PurchaseFunnelTracer {
+
+    private static final String TAG = PurchaseFunnelTracer.class.getName();
+
+    public static final String REPORT_FILE_NAME = "purchase_funnel_report.txt";
+
+    // Number of latest completed traces that the percentiles are computed from.
+    private static final int MAX_SAMPLES = 256;
+    // A trace that is not completed by then is dropped.
+    private static final long TRACE_TIMEOUT_IN_MILLIS = 10 * 60 * 1000;
+
+    private final Context context;
+    private final WorkExecutor ioExecutor;
+    // Traces of the purchase flows in progress, by their SKU ID.
+    private final Map<String, Trace> launchingTraces = new HashMap<>();
+    // Traces of the purchases given back by Google Play Billing Library, by their purchase token.
+    private final Map<String, Trace> purchasedTraces = new HashMap<>();
+    // Latencies of each stage since the tap, and since the stage reached before it.
+    private final long[][] sinceTapSamples = new long[Stage.values().length][MAX_SAMPLES];
+    private final long[][] stepSamples = new long[Stage.values().length][MAX_SAMPLES];
+    private final int[] sampleCounts = new int[Stage.values().length];
+    private long nextTraceID = 1;
+    private int completedTraces;
+
+    @Inject
+    public PurchaseFunnelTracer(
+            @ApplicationContext @NonNull Context context,
+            @IoExecutor @NonNull WorkExecutor ioExecutor) {
+        this.context = context;
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * Starts tracing a purchase of the given SKU from the user's tap. A purchase flow of the same
+     * SKU that is still being traced is dropped.
+     *
+     * @param skuID The SKU ID of the product being purchased.
+     */
+    public synchronized void begin(@NonNull String skuID) {
+        final long now = SystemClock.elapsedRealtime();
+        dropTimedOutTraces(launchingTraces, now);
+        dropTimedOutTraces(purchasedTraces, now);
+        final Trace trace = new Trace(nextTraceID++, skuID, now);
+        launchingTraces.put(skuID, trace);
+        MonetizeApp.printLog(TAG, "trace #" + trace.traceID + " " + skuID + ": " + Stage.TAP);
+    }
+
+    /**
+     * Marks that the purchase flow of the given SKU is launched. It is ignored if the user did not
+     * tap to purchase the SKU.
+     *
+     * @param skuID The SKU ID of the product being purchased.
+     */
+    public synchronized void markLaunched(@NonNull String skuID) {
+        final Trace trace = launchingTraces.get(skuID);
+        if (trace != null && !trace.isReached(Stage.LAUNCH)) {
+            reach(trace, Stage.LAUNCH);
+        }
+    }
+
+    /**
+     * Marks that Google Play Billing Library gave back a purchase, and traces the later stages of
+     * the purchase flow of its SKU by the given purchase token. It is ignored if the user did not
+     * tap to purchase any of its SKUs.
+     *
+     * @param purchaseToken The purchase token of the purchase given back.
+     * @param skuIDs The SKU IDs of the purchase given back.
+     */
+    public synchronized void markUpdated(
+            @NonNull String purchaseToken, @NonNull List<String> skuIDs) {
+        for (String skuID : skuIDs) {
+            final Trace trace = launchingTraces.remove(skuID);
+            if (trace != null) {
+                purchasedTraces.put(purchaseToken, trace);
+                reach(trace, Stage.UPDATED);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Marks that the purchase of the given purchase token has reached the given stage, one of the
+     * stages after {@link Stage#UPDATED}. It is ignored if the purchase is not traced, or if it has
+     * reached the stage already. {@link Stage#SHOWN} is only marked once the purchase is {@link
+     * Stage#STORED}, and it completes the trace.
+     *
+     * @param purchaseToken The purchase token of the purchase.
+     * @param stage The stage that is reached.
+     */
+    public synchronized void mark(@NonNull String purchaseToken, @NonNull Stage stage) {
+        final Trace trace = purchasedTraces.get(purchaseToken);
+        if (trace == null || trace.isReached(stage)) {
+            return;
+        }
+        if (stage == Stage.SHOWN && !trace.isReached(Stage.STORED)) {
+            return;
+        }
+        reach(trace, stage);
+        if (stage == Stage.SHOWN) {
+            purchasedTraces.remove(purchaseToken);
+            complete(trace);
+        }
+    }
+
+    /**
+     * Drops the traced purchase flows that were launched but never updated, as the purchase flow
+     * ended without a purchase, e.g. the user canceled it.
+     *
+     * @param reason Why the purchase flow ended.
+     */
+    public synchronized void abandonLaunched(@NonNull String reason) {
+        for (Trace trace : launchingTraces.values()) {
+            MonetizeApp.printLog(
+                    TAG, "trace #" + trace.traceID + " " + trace.skuID + ": " + reason);
+        }
+        launchingTraces.clear();
+    }
+
+    /** @return a report of the latency percentiles of each stage of the completed traces. */
+    @NonNull
+    public synchronized String getReport() {
+        final StringBuilder report = new StringBuilder();
+        report.append("Purchase funnel, completed traces: ").append(completedTraces).append('\n');
+        report.append(
+                String.format(
+                        Locale.US,
+                        "%-13s %5s | %-31s | %-31s%n",
+                        "stage",
+                        "n",
+                        "since tap p50/p90/p99/max (ms)",
+                        "since previous p50/p90/p99/max"));
+        for (Stage stage : Stage.values()) {
+            final int count = Math.min(sampleCounts[stage.ordinal()], MAX_SAMPLES);
+            report.append(
+                    String.format(
+                            Locale.US,
+                            "%-13s %5d | %-31s | %-31s%n",
+                            stage,
+                            count,
+                            percentiles(sinceTapSamples[stage.ordinal()], count),
+                            percentiles(stepSamples[stage.ordinal()], count)));
+        }
+        return report.toString();
+    }
+
+    /** Logs the report and writes it to {@link #REPORT_FILE_NAME} in background. */
+    public void writeReport() {
+        final String report = getReport();
+        MonetizeApp.printLog(TAG, report);
+        ioExecutor.execute(
+                WorkExecutor.Lane.BACKGROUND,
+                "PurchaseFunnelTracer.writeReport",
+                () -> {
+                    final File reportFile = new File(context.getFilesDir(), REPORT_FILE_NAME);
+                    try (Writer writer = new FileWriter(reportFile)) {
+                        writer.write(report);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                });
+    }
+
+    private void complete(@NonNull Trace trace) {
+        completedTraces++;
+        final long tapTime = trace.timestamps[Stage.TAP.ordinal()];
+        long previousTime = tapTime;
+        for (Stage stage : Stage.values()) {
+            if (!trace.isReached(stage)) {
+                continue;
+            }
+            final long time = trace.timestamps[stage.ordinal()];
+            final int index = sampleCounts[stage.ordinal()]++ % MAX_SAMPLES;
+            sinceTapSamples[stage.ordinal()][index] = time - tapTime;
+            stepSamples[stage.ordinal()][index] = Math.max(0, time - previousTime);
+            previousTime = Math.max(previousTime, time);
+        }
+        writeReport();
+    }
+
+    private void reach(@NonNull Trace trace, @NonNull Stage stage) {
+        final long now = SystemClock.elapsedRealtime();
+        trace.timestamps[stage.ordinal()] = now;
+        MonetizeApp.printLog(
+                TAG,
+                "trace #"
+                        + trace.traceID
+                        + " "
+                        + trace.skuID
+                        + ": "
+                        + stage
+                        + " +"
+                        + (now - trace.timestamps[Stage.TAP.ordinal()])
+                        + "ms");
+    }
+
+    private static void dropTimedOutTraces(@NonNull Map<String, Trace> traces, long now) {
+        final Iterator<Trace> iterator = traces.values().iterator();
+        while (iterator.hasNext()) {
+            final Trace trace = iterator.next();
+            if (now - trace.timestamps[Stage.TAP.ordinal()] > TRACE_TIMEOUT_IN_MILLIS) {
+                MonetizeApp.printLog(
+                        TAG, "trace #" + trace.traceID + " " + trace.skuID + ": timed out");
+                iterator.remove();
+            }
+        }
+    }
+
+    @NonNull
+    private static String percentiles(@NonNull long[] samples, int count) {
+        if (count == 0) {
+            return "-";
+        }
+        final long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return percentile(sorted, 0.5)
+                + "/"
+                + percentile(sorted, 0.9)
+                + "/"
+                + percentile(sorted, 0.99)
+                + "/"
+                + sorted[count - 1];
+    }
+
+    private static long percentile(@NonNull long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(sorted.length * percentile) - 1];
+    }
+
+    /** The stages of a purchase, in the order they are expected to be reached. */
+    public enum Stage {
+        // The user tapped to buy a product.
+        TAP,
+        // The purchase flow of Google Play Billing Library is launched.
+        LAUNCH,
+        // Google Play Billing Library gave the purchase back.
+        UPDATED,
+        // The purchase is acknowledged, or consumed for consumable products.
+        ACKNOWLEDGED,
+        // The purchase is written to the local database.
+        STORED,
+        // The UI observed the stored purchase.
+        SHOWN
+    }
+
+    /** A purchase being traced, with the time each stage was reached at. */
+    private static final class Trace {
+
+        final long traceID;
+        final String skuID;
+        final long[] timestamps = new long[Stage.values().length];
+
+        Trace(long traceID, @NonNull String skuID, long tapTime) {
+            this.traceID = traceID;
+            this.skuID = skuID;
+            Arrays.fill(timestamps, -1);
+            timestamps[Stage.TAP.ordinal()] = tapTime;
+        }
+
+        boolean isReached(@NonNull Stage stage) {
+            return timestamps[stage.ordinal()] >= 0;
+        }
+    }
+}
@@ -23,16 +23,27 @@ import android.net.Network;
 import android.net.NetworkCapabilities;
 import android.os.Handler;
 import android.os.Looper;
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
+import com.litekite.monetize.app.MonetizeApp;
 import com.litekite.monetize.base.CallbackProvider;
+import com.litekite.monetize.base.FrameDispatcher;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 /**
- * Handles Network Connectivity, checks whether network is available and notifies network
- * connectivity status to the registered receivers.
+ * Handles Network Connectivity, keeps the state of the default network current from a Default
+ * Network Callback and notifies network connectivity status to the registered receivers. The
+ * network events are settled for {@link #SETTLE_WINDOW_IN_MILLIS}, and only the changes of the
+ * availability are notified, on the next frame through {@link FrameDispatcher}.
  *
  * @author Vignesh S
  * @version 1.0, 04/03/2018
@@ -46,15 +57,31 @@ import javax.inject.Singleton;
 @Singleton
 public class NetworkManager implements CallbackProvider<NetworkManager.NetworkStateCallback> {
 
+    private static final String TAG = NetworkManager.class.getName();
+
+    // Network events that arrive within this time are settled into one notification.
+    private static final long SETTLE_WINDOW_IN_MILLIS = 500;
+
     private final Handler handler = new Handler(Looper.getMainLooper());
+    private final FrameDispatcher frameDispatcher;
     private final ConnectivityManager connMgr;
     private final List<NetworkStateCallback> networkStateCallbacks = new ArrayList<>();
+    // The latest state of the default network, updated by the network callback.
+    private final AtomicReference<NetworkState> networkState =
+            new AtomicReference<>(NetworkState.NONE);
+    // Whether a notification is due at the end of the current settle window.
+    private final AtomicBoolean notificationScheduled = new AtomicBoolean();
+    // Network events received in the current settle window.
+    private final AtomicInteger windowEventCount = new AtomicInteger();
+    private final Runnable notifyNetworkStateRunnable = this::notifyNetworkState;
+    private final Runnable endSettleWindowRunnable = this::endSettleWindow;
     private final NetworkCallback networkCallback =
             new NetworkCallback() {
                 @Override
                 public void onAvailable(@NonNull Network network) {
                     super.onAvailable(network);
-                    notifyNetworkState(network);
+                    // The capabilities are not given along on API levels below 26.
+                    updateNetworkState(NetworkState.from(connMgr.getNetworkCapabilities(network)));
                 }
 
                 @Override
@@ -62,86 +89,178 @@ public class NetworkManager implements CallbackProvider<NetworkManager.NetworkSt
                         @NonNull Network network,
                         @NonNull NetworkCapabilities networkCapabilities) {
                     super.onCapabilitiesChanged(network, networkCapabilities);
-                    notifyNetworkState(network);
+                    updateNetworkState(NetworkState.from(networkCapabilities));
                 }
 
                 @Override
                 public void onLost(@NonNull Network network) {
                     super.onLost(network);
-                    notifyNetworkState(network);
+                    updateNetworkState(NetworkState.NONE);
                 }
             };
-    private boolean networkCallbackRegistered = false;
+    // Work deferred until the network quality is good enough, by its key, on the main thread.
+    private final Map<String, DeferredWork> deferredWorks = new LinkedHashMap<>();
+    // The availability that was notified last, accessed on the main thread.
+    private boolean notifiedAvailable;
+    private long suppressedEventCount;
 
+    /**
+     * Takes the state of the default network and registers a Default Network Callback that keeps it
+     * current for as long as the app is running.
+     *
+     * @param context An Application Context.
+     * @param frameDispatcher Delivers the network state notifications on the next frame.
+     */
     @Inject
-    public NetworkManager(@NonNull Context context) {
+    public NetworkManager(@NonNull Context context, @NonNull FrameDispatcher frameDispatcher) {
+        this.frameDispatcher = frameDispatcher;
         connMgr = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        networkState.set(
+                NetworkState.from(connMgr.getNetworkCapabilities(connMgr.getActiveNetwork())));
+        notifiedAvailable = networkState.get().isAvailable;
+        connMgr.registerDefaultNetworkCallback(networkCallback);
+    }
+
+    /** @return the latest state of the default network, without calling Connectivity Manager. */
+    @NonNull
+    public NetworkState getNetworkState() {
+        return networkState.get();
+    }
+
+    /** @return boolean value of whether the default network has internet connectivity or not. */
+    public boolean isOnline() {
+        return networkState.get().isAvailable;
     }
 
     /**
-     * Check Network Connectivity through Connectivity Manager.
+     * Runs the given work now if the network quality is at least the given one, defers it until
+     * then otherwise. Deferred work with the same key is run once, so repeated requests are
+     * batched. Meant for the work that is not requested by the user, which can wait for better
+     * network conditions.
      *
-     * @param context Activity or Application Context.
-     * @return boolean value of whether the network has internet connectivity or not.
+     * @param quality The lowest network quality to run the work on.
+     * @param key Identifies the work, e.g. its method name.
+     * @param work The work to run on the main thread.
      */
-    public static boolean isOnline(@NonNull Context context) {
-        ConnectivityManager connMgr =
-                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
-        if (connMgr.getActiveNetwork() != null) {
-            return connMgr.getNetworkCapabilities(connMgr.getActiveNetwork())
-                    .hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+    @MainThread
+    public void runWhenQualityIsAtLeast(
+            @NonNull NetworkQuality quality, @NonNull String key, @NonNull Runnable work) {
+        final NetworkState state = networkState.get();
+        if (state.quality.isAtLeast(quality)) {
+            deferredWorks.remove(key);
+            work.run();
+            return;
         }
-        return false;
+        MonetizeApp.printLog(
+                TAG, "deferring " + key + " until " + quality + ", network is " + state.quality);
+        deferredWorks.put(key, new DeferredWork(quality, work));
+    }
+
+    /**
+     * @return the number of network events that were not notified, either as they arrived within
+     *     the settle window of another one or as they did not change the availability.
+     */
+    @MainThread
+    public long getSuppressedEventCount() {
+        return suppressedEventCount;
     }
 
     /**
-     * Checks the network availability state and notifies the state to all the registered clients.
+     * Keeps the given network state and notifies it to all the registered clients at the end of the
+     * settle window, so that a burst of events is notified once.
      *
-     * @param network An active network object.
+     * @param state The latest state of the default network.
      */
-    private void notifyNetworkState(@NonNull Network network) {
-        boolean isAvailable =
-                connMgr.getNetworkCapabilities(network)
-                        .hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
-        if (isAvailable) {
-            handler.post(
-                    () -> networkStateCallbacks.forEach(NetworkStateCallback::onNetworkAvailable));
-        } else {
-            handler.post(() -> networkStateCallbacks.forEach(NetworkStateCallback::onNetworkLost));
+    private void updateNetworkState(@NonNull NetworkState state) {
+        networkState.set(state);
+        windowEventCount.incrementAndGet();
+        if (notificationScheduled.compareAndSet(false, true)) {
+            handler.postDelayed(endSettleWindowRunnable, SETTLE_WINDOW_IN_MILLIS);
         }
     }
 
+    /** Ends the settle window, the settled network state is notified on the next frame. */
+    @MainThread
+    private void endSettleWindow() {
+        frameDispatcher.dispatch(TAG + ".notifyNetworkState", notifyNetworkStateRunnable);
+    }
+
     /**
-     * Registers a Default Network Callback that will be notified whenever there's a network change
-     * happens.
+     * Notifies the settled network state to all the registered clients, only if its availability
+     * has changed since it was notified last.
      */
-    private void registerNetworkCallback() {
-        if (!networkCallbackRegistered && networkStateCallbacks.size() > 0) {
-            networkCallbackRegistered = true;
-            connMgr.registerDefaultNetworkCallback(networkCallback);
+    @MainThread
+    private void notifyNetworkState() {
+        notificationScheduled.set(false);
+        final int eventCount = windowEventCount.getAndSet(0);
+        final boolean isAvailable = networkState.get().isAvailable;
+        final boolean isTransition = isAvailable != notifiedAvailable;
+        final int suppressed = isTransition ? Math.max(eventCount - 1, 0) : eventCount;
+        suppressedEventCount += suppressed;
+        MonetizeApp.printLog(
+                TAG,
+                "network events: "
+                        + eventCount
+                        + ", suppressed: "
+                        + suppressed
+                        + ", total suppressed: "
+                        + suppressedEventCount
+                        + ", available: "
+                        + isAvailable);
+        runDeferredWorks();
+        if (!isTransition) {
+            return;
+        }
+        notifiedAvailable = isAvailable;
+        if (isAvailable) {
+            networkStateCallbacks.forEach(NetworkStateCallback::onNetworkAvailable);
+        } else {
+            networkStateCallbacks.forEach(NetworkStateCallback::onNetworkLost);
         }
     }
 
-    /** Unregisters Default Network Callback. */
-    private void unregisterNetworkCallback() {
-        if (networkCallbackRegistered && networkStateCallbacks.size() == 0) {
-            networkCallbackRegistered = false;
-            connMgr.unregisterNetworkCallback(networkCallback);
+    /** Runs the deferred work that the settled network quality is good enough for. */
+    @MainThread
+    private void runDeferredWorks() {
+        if (deferredWorks.isEmpty()) {
+            return;
+        }
+        final NetworkQuality quality = networkState.get().quality;
+        final List<Runnable> works = new ArrayList<>();
+        final Iterator<Map.Entry<String, DeferredWork>> iterator =
+                deferredWorks.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, DeferredWork> entry = iterator.next();
+            if (quality.isAtLeast(entry.getValue().quality)) {
+                MonetizeApp.printLog(TAG, "running deferred " + entry.getKey() + " on " + quality);
+                works.add(entry.getValue().work);
+                iterator.remove();
+            }
         }
+        works.forEach(Runnable::run);
     }
 
     @Override
     public void addCallback(@NonNull NetworkStateCallback cb) {
         if (!networkStateCallbacks.contains(cb)) {
             networkStateCallbacks.add(cb);
-            registerNetworkCallback();
         }
     }
 
     @Override
     public void removeCallback(@NonNull NetworkStateCallback cb) {
-        if (networkStateCallbacks.remove(cb)) {
-            unregisterNetworkCallback();
+        networkStateCallbacks.remove(cb);
+    }
+
+    /** A work that waits for the network quality to be at least the given one. */
+    private static final class DeferredWork {
+
+        final NetworkQuality quality;
+        final Runnable work;
+
+        DeferredWork(@NonNull NetworkQuality quality, @NonNull Runnable work) {
+            this.quality = quality;
+            this.work = work;
         }
     }
 
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.network;
+
+import androidx.annotation.NonNull;
+
+/**
+ * NetworkQuality, how suitable the default network is for the work that is not requested by the
+ * user, in increasing order of quality.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public enum NetworkQuality {
+    // There is no network with internet connectivity.
+    NONE,
+    // The network is not validated yet, or its bandwidth is too low.
+    POOR,
+    // The network is validated, but it is metered, roaming or slow.
+    MODERATE,
+    // The network is validated, unmetered, not roaming and fast.
+    GOOD;
+
+    /**
+     * @param quality A quality to compare with.
+     * @return whether this quality is the same or better than the given one.
+     */
+    public boolean isAtLeast(@NonNull NetworkQuality quality) {
+        return compareTo(quality) >= 0;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.network;
+
+import android.net.NetworkCapabilities;
+import android.os.Build;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * NetworkState, a snapshot of the default network's connectivity: whether it is available and
+ * validated, whether it is metered or roaming, its transport, its estimated downstream bandwidth
+ * and the {@link NetworkQuality} classified from them. It is immutable, so it can be read from any
+ * thread without making calls to {@link android.net.ConnectivityManager}.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public final class NetworkState {
+
+    /** The state when there is no default network. */
+    public static final NetworkState NONE =
+            new NetworkState(false, false, true, false, Transport.NONE, 0);
+
+    // Below this downstream bandwidth, a network is poor.
+    private static final int POOR_BANDWIDTH_IN_KBPS = 150;
+    // From this downstream bandwidth, an unmetered network is good.
+    private static final int GOOD_BANDWIDTH_IN_KBPS = 1000;
+
+    public final boolean isAvailable;
+    public final boolean isValidated;
+    public final boolean isMetered;
+    public final boolean isRoaming;
+    @NonNull public final Transport transport;
+    // The estimated downstream bandwidth, or 0 if it is not known.
+    public final int downstreamBandwidthInKbps;
+    @NonNull public final NetworkQuality quality;
+
+    private NetworkState(
+            boolean isAvailable,
+            boolean isValidated,
+            boolean isMetered,
+            boolean isRoaming,
+            @NonNull Transport transport,
+            int downstreamBandwidthInKbps) {
+        this.isAvailable = isAvailable;
+        this.isValidated = isValidated;
+        this.isMetered = isMetered;
+        this.isRoaming = isRoaming;
+        this.transport = transport;
+        this.downstreamBandwidthInKbps = downstreamBandwidthInKbps;
+        this.quality = classifyQuality();
+    }
+
+    /**
+     * @param capabilities The capabilities of the default network, or null if there is none.
+     * @return the state of the network with the given capabilities.
+     */
+    @NonNull
+    public static NetworkState from(@Nullable NetworkCapabilities capabilities) {
+        if (capabilities == null) {
+            return NONE;
+        }
+        return new NetworkState(
+                capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET),
+                capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED),
+                !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED),
+                // Roaming is only known from API level 28.
+                Build.VERSION.SDK_INT >= Build.VERSION_CODES.P
+                        && !capabilities.hasCapability(
+                                NetworkCapabilities.NET_CAPABILITY_NOT_ROAMING),
+                Transport.from(capabilities),
+                capabilities.getLinkDownstreamBandwidthKbps());
+    }
+
+    @NonNull
+    private NetworkQuality classifyQuality() {
+        final boolean isBandwidthKnown = downstreamBandwidthInKbps > 0;
+        if (!isAvailable) {
+            return NetworkQuality.NONE;
+        } else if (!isValidated
+                || (isBandwidthKnown && downstreamBandwidthInKbps < POOR_BANDWIDTH_IN_KBPS)) {
+            return NetworkQuality.POOR;
+        } else if (isMetered
+                || isRoaming
+                || (isBandwidthKnown && downstreamBandwidthInKbps < GOOD_BANDWIDTH_IN_KBPS)) {
+            return NetworkQuality.MODERATE;
+        }
+        return NetworkQuality.GOOD;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        NetworkState that = (NetworkState) o;
+        return isAvailable == that.isAvailable
+                && isValidated == that.isValidated
+                && isMetered == that.isMetered
+                && isRoaming == that.isRoaming
+                && transport == that.transport
+                && downstreamBandwidthInKbps == that.downstreamBandwidthInKbps;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Boolean.hashCode(isAvailable);
+        result = 31 * result + Boolean.hashCode(isValidated);
+        result = 31 * result + Boolean.hashCode(isMetered);
+        result = 31 * result + Boolean.hashCode(isRoaming);
+        result = 31 * result + transport.hashCode();
+        result = 31 * result + downstreamBandwidthInKbps;
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "NetworkState{"
+                + "isAvailable="
+                + isAvailable
+                + ", isValidated="
+                + isValidated
+                + ", isMetered="
+                + isMetered
+                + ", isRoaming="
+                + isRoaming
+                + ", transport="
+                + transport
+                + ", downstreamBandwidthInKbps="
+                + downstreamBandwidthInKbps
+                + ", quality="
+                + quality
+                + '}';
+    }
+
+    /** The transport that the network uses. */
+    public enum Transport {
+        NONE,
+        WIFI,
+        CELLULAR,
+        ETHERNET,
+        VPN,
+        OTHER;
+
+        @NonNull
+        static Transport from(@NonNull NetworkCapabilities capabilities) {
+            if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_VPN)) {
+                return VPN;
+            } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
+                return WIFI;
+            } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
+                return CELLULAR;
+            } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
+                return ETHERNET;
+            }
+            return OTHER;
+        }
+    }
+}
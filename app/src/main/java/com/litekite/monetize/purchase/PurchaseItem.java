@@ -0,0 +1,194 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.purchase;
+
+import android.content.res.Resources;
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.litekite.monetize.R;
+import com.litekite.monetize.billing.BillingConstants;
+import com.litekite.monetize.room.entity.BillingPurchaseDetails;
+import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
+import com.litekite.monetize.util.DateTimeUtil;
+import com.litekite.monetize.util.FormatService;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * PurchaseItem, an immutable and fully resolved Product Item, has product name, icon and its
+ * formatted purchase state. It is built off the main thread, so that binding it only assigns
+ * values.
+ *
+ * <p>A purchase that expires has its state resolved both before and after its expiry, and which of
+ * them applies is checked when the item is bound, see {@link #getState()}. So an item that is kept
+ * in memory shows its purchase expired, even if the local database does not change.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public final class PurchaseItem {
+
+    @NonNull public final String skuID;
+    @NonNull public final String name;
+    // The purchase state, until the purchase expires.
+    @NonNull public final String state;
+    // The purchase state after the purchase expires, null if it does not expire.
+    @Nullable public final String expiredState;
+    public final long expiryTimeInMillis;
+    @DrawableRes public final int iconResId;
+    // The purchase token of the latest purchase of the product, empty if it was not purchased yet.
+    @NonNull public final String lastPurchaseToken;
+
+    private PurchaseItem(
+            @NonNull String skuID,
+            @NonNull String name,
+            @NonNull String state,
+            @DrawableRes int iconResId,
+            @NonNull String lastPurchaseToken) {
+        this(skuID, name, state, null, 0, iconResId, lastPurchaseToken);
+    }
+
+    private PurchaseItem(
+            @NonNull String skuID,
+            @NonNull String name,
+            @NonNull String state,
+            @Nullable String expiredState,
+            long expiryTimeInMillis,
+            @DrawableRes int iconResId,
+            @NonNull String lastPurchaseToken) {
+        this.skuID = skuID;
+        this.name = name;
+        this.state = state;
+        this.expiredState = expiredState;
+        this.expiryTimeInMillis = expiryTimeInMillis;
+        this.iconResId = iconResId;
+        this.lastPurchaseToken = lastPurchaseToken;
+    }
+
+    /**
+     * Resolves a Product Item from the Sku Details and its related Purchases.
+     *
+     * @param resources Resources in which the product names and states are resolved.
+     * @param formatService Formats the expiry date of the product.
+     * @param productRelatedPurchases contains Products with its Sku Details and its related
+     *     Purchases.
+     * @return a Product Item.
+     */
+    @NonNull
+    public static PurchaseItem from(
+            @NonNull Resources resources,
+            @NonNull FormatService formatService,
+            @NonNull BillingSkuRelatedPurchases productRelatedPurchases) {
+        final String skuID = productRelatedPurchases.billingSkuDetails.skuID;
+        final String lastPurchaseToken = productRelatedPurchases.getLastPurchaseToken();
+        if (skuID.equals(BillingConstants.SKU_BUY_APPLE)) {
+            // This is Apple.
+            final int productPurchaseCount = (int) productRelatedPurchases.getPurchaseCount();
+            return new PurchaseItem(
+                    skuID,
+                    resources.getQuantityString(R.plurals.apples, productPurchaseCount),
+                    resources.getQuantityString(
+                            R.plurals.qty, productPurchaseCount, productPurchaseCount),
+                    R.drawable.ic_apple,
+                    lastPurchaseToken);
+        }
+        // This is Popcorn.
+        return getPopcornPurchaseItem(
+                resources,
+                formatService,
+                skuID,
+                resources.getString(R.string.unlimited_popcorn),
+                productRelatedPurchases.billingPurchaseDetails,
+                lastPurchaseToken);
+    }
+
+    /**
+     * Resolves the Popcorn Product Item, with its Purchase Status before and after its purchase
+     * expires, if it was purchased.
+     */
+    @NonNull
+    private static PurchaseItem getPopcornPurchaseItem(
+            @NonNull Resources resources,
+            @NonNull FormatService formatService,
+            @NonNull String skuID,
+            @NonNull String name,
+            @NonNull List<BillingPurchaseDetails> productPurchaseDetails,
+            @NonNull String lastPurchaseToken) {
+        // Unlimited popcorn was not purchased yet.
+        if (productPurchaseDetails.size() <= 0) {
+            return new PurchaseItem(
+                    skuID,
+                    name,
+                    resources.getString(R.string.not_purchased_yet),
+                    R.drawable.ic_popcorn,
+                    lastPurchaseToken);
+        }
+        long productPurchaseTimeInMillis =
+                productPurchaseDetails.get(productPurchaseDetails.size() - 1).purchaseTime;
+        // Test Subscriptions are valid for 5 minutes from the purchase time. For
+        // production release, add 30 days to the purchase time that gives the expiry date of
+        // subscription
+        productPurchaseTimeInMillis =
+                productPurchaseTimeInMillis + DateTimeUtil.FIVE_MINUTES_IN_MILLIS;
+        // Expiry Date of Subscription
+        String productExpiryDateTime = formatService.formatDateTime(productPurchaseTimeInMillis);
+        // Unlimited popcorn purchase is active until it expires.
+        return new PurchaseItem(
+                skuID,
+                name,
+                resources.getString(R.string.purchased_with_expiry, productExpiryDateTime),
+                resources.getString(R.string.purchase_expired, productExpiryDateTime),
+                productPurchaseTimeInMillis,
+                R.drawable.ic_popcorn,
+                lastPurchaseToken);
+    }
+
+    /** @return the Purchase Status of this Product Item at this time. */
+    @NonNull
+    public String getState() {
+        // Unlimited popcorn purchase was expired if true.
+        if (expiredState != null && DateTimeUtil.isDateTimePast(expiryTimeInMillis)) {
+            return expiredState;
+        }
+        return state;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PurchaseItem that = (PurchaseItem) o;
+        return iconResId == that.iconResId
+                && skuID.equals(that.skuID)
+                && name.equals(that.name)
+                && expiryTimeInMillis == that.expiryTimeInMillis
+                && state.equals(that.state)
+                && Objects.equals(expiredState, that.expiredState)
+                && lastPurchaseToken.equals(that.lastPurchaseToken);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                skuID, name, state, expiredState, expiryTimeInMillis, iconResId, lastPurchaseToken);
+    }
+}
@@ -24,13 +24,16 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.databinding.DataBindingUtil;
 import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import com.litekite.monetize.R;
 import com.litekite.monetize.base.BaseActivity;
 import com.litekite.monetize.databinding.ActivityViewPurchasesBinding;
-import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
+import com.litekite.monetize.metrics.PurchaseFunnelTracer;
 import dagger.hilt.android.AndroidEntryPoint;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
 
 /**
  * PurchasesActivity, which displays list of inApp and subscription products that are all purchased
@@ -43,21 +46,26 @@ import java.util.List;
 @AndroidEntryPoint
 public class PurchasesActivity extends BaseActivity {
 
-    private final List<BillingSkuRelatedPurchases> skuProductsAndPurchasesList = new ArrayList<>();
+    @Inject PurchaseFunnelTracer purchaseFunnelTracer;
     private ActivityViewPurchasesBinding viewPurchasesBinding;
     private PurchasesAdapter purchasesAdapter;
 
+    // The last Purchase Token of each product that was shown, to trace a purchase as shown once.
+    private final Map<String, String> shownPurchaseTokens = new HashMap<>();
+
     /**
      * Observes changes and updates of Sku Products and Purchases which is stored in local database.
-     * Updates observed changes to the products list.
+     * Submits observed changes to the products list, which binds only the changed products.
      */
-    private final Observer<List<BillingSkuRelatedPurchases>> skuProductsAndPurchasesObserver =
-            skuRelatedPurchasesList -> {
-                if (skuRelatedPurchasesList != null && skuRelatedPurchasesList.size() > 0) {
-                    PurchasesActivity.this.skuProductsAndPurchasesList.clear();
-                    PurchasesActivity.this.skuProductsAndPurchasesList.addAll(
-                            skuRelatedPurchasesList);
-                    PurchasesActivity.this.purchasesAdapter.notifyDataSetChanged();
+    private final Observer<List<PurchaseItem>> purchaseItemsObserver =
+            purchaseItems -> {
+                if (purchaseItems != null && purchaseItems.size() > 0) {
+                    setUiState(UI_STATE_LIST_DIFF);
+                    PurchasesActivity.this.purchasesAdapter.submitList(
+                            purchaseItems, () -> setUiStateForNextFrame(UI_STATE_LIST_REBIND));
+                    for (PurchaseItem purchaseItem : purchaseItems) {
+                        markShown(purchaseItem.skuID, purchaseItem.lastPurchaseToken);
+                    }
                 }
             };
 
@@ -95,8 +103,28 @@ public class PurchasesActivity extends BaseActivity {
                 viewPurchasesBinding.tbWidget.tvToolbarTitle);
         PurchasesVM purchasesVM = new ViewModelProvider(this).get(PurchasesVM.class);
         this.getLifecycle().addObserver(purchasesVM);
-        purchasesAdapter = new PurchasesAdapter(this, skuProductsAndPurchasesList);
+        purchasesAdapter = new PurchasesAdapter(viewHolderPool, purchasesVM.getListDiffExecutor());
+        // Keeps the product item views in the pool of the list, for the next time it is shown.
+        ((LinearLayoutManager) viewPurchasesBinding.rvProductsPurchases.getLayoutManager())
+                .setRecycleChildrenOnDetach(true);
+        viewHolderPool.attachRecycledViewPool(
+                viewPurchasesBinding.rvProductsPurchases, R.layout.adapter_purchase_item);
         viewPurchasesBinding.rvProductsPurchases.setAdapter(purchasesAdapter);
-        purchasesVM.getSkuProductsAndPurchasesList().observe(this, skuProductsAndPurchasesObserver);
+        purchasesVM.getPurchaseItems().observe(this, purchaseItemsObserver);
+    }
+
+    /**
+     * Traces the latest purchase of the given product as shown, once it is shown for the first
+     * time.
+     *
+     * @param skuID A Sku Product ID.
+     * @param purchaseToken The Purchase Token of the latest purchase of the product.
+     */
+    private void markShown(@NonNull String skuID, @NonNull String purchaseToken) {
+        if (purchaseToken.isEmpty() || purchaseToken.equals(shownPurchaseTokens.get(skuID))) {
+            return;
+        }
+        shownPurchaseTokens.put(skuID, purchaseToken);
+        purchaseFunnelTracer.mark(purchaseToken, PurchaseFunnelTracer.Stage.SHOWN);
     }
 }
@@ -15,16 +15,18 @@
  */
 package com.litekite.monetize.purchase;
 
-import android.content.Context;
-import android.view.LayoutInflater;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.databinding.DataBindingUtil;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.litekite.monetize.R;
+import com.litekite.monetize.base.ViewHolderPool;
 import com.litekite.monetize.databinding.AdapterPurchaseItemBinding;
-import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
-import java.util.List;
+import com.litekite.monetize.util.StableIds;
+import java.util.concurrent.Executor;
 
 /**
  * PurchasesAdapter, a RecyclerViewAdapter which provides product item and each product item has its
@@ -32,68 +34,97 @@ import java.util.List;
  * displayed. For subscription based products, the date of expiration will be displayed if it was
  * already purchased. Otherwise "Not Purchased Yet" will be displayed.
  *
+ * <p>List updates are diffed on a background executor and only the changed products are bound
+ * again. Item IDs are stable and keyed by the SKU ID.
+ *
+ * <p>Product item views come from {@link ViewHolderPool}, which may have pre-inflated them.
+ *
  * @author Vignesh S
  * @version 1.0, 10/03/2018
  * @since 1.0
  */
-public class PurchasesAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+public class PurchasesAdapter extends ListAdapter<PurchaseItem, RecyclerView.ViewHolder> {
+
+    private static final DiffUtil.ItemCallback<PurchaseItem> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<PurchaseItem>() {
+                @Override
+                public boolean areItemsTheSame(
+                        @NonNull PurchaseItem oldItem, @NonNull PurchaseItem newItem) {
+                    return oldItem.skuID.equals(newItem.skuID);
+                }
+
+                @Override
+                public boolean areContentsTheSame(
+                        @NonNull PurchaseItem oldItem, @NonNull PurchaseItem newItem) {
+                    return oldItem.equals(newItem);
+                }
+            };
 
-    private final Context context;
-    private final List<BillingSkuRelatedPurchases> skuProductsAndPurchasesList;
+    private final ViewHolderPool viewHolderPool;
+    private final StableIds stableIds = new StableIds();
 
     /**
      * Initializes attributes.
      *
-     * @param context An Activity Context.
-     * @param skuProductsAndPurchasesList Has Sku Products and its related purchases.
+     * @param viewHolderPool Provides pre-inflated product item views.
+     * @param diffExecutor An executor in which the list differences are computed.
      */
     public PurchasesAdapter(
-            @NonNull Context context,
-            @NonNull List<BillingSkuRelatedPurchases> skuProductsAndPurchasesList) {
-        this.context = context;
-        this.skuProductsAndPurchasesList = skuProductsAndPurchasesList;
+            @NonNull ViewHolderPool viewHolderPool, @NonNull Executor diffExecutor) {
+        super(
+                new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                        .setBackgroundThreadExecutor(diffExecutor)
+                        .build());
+        this.viewHolderPool = viewHolderPool;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return R.layout.adapter_purchase_item;
     }
 
     @NonNull
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         AdapterPurchaseItemBinding adapterPurchaseItemBinding =
-                DataBindingUtil.inflate(
-                        LayoutInflater.from(parent.getContext()),
-                        R.layout.adapter_purchase_item,
-                        parent,
-                        false);
-        return new ViewHolderPurchaseProduct(adapterPurchaseItemBinding);
+                DataBindingUtil.bind(
+                        viewHolderPool.obtainView(parent, R.layout.adapter_purchase_item));
+        PurchaseItemVM purchaseItemVM = new PurchaseItemVM();
+        adapterPurchaseItemBinding.setPresenter(purchaseItemVM);
+        return new ViewHolderPurchaseProduct(adapterPurchaseItemBinding, purchaseItemVM);
     }
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
         ViewHolderPurchaseProduct viewHolderPurchaseProduct = (ViewHolderPurchaseProduct) holder;
-        BillingSkuRelatedPurchases productRelatedPurchases =
-                skuProductsAndPurchasesList.get(position);
-        viewHolderPurchaseProduct.adapterPurchaseItemBinding.setPresenter(
-                new PurchaseItemVM(context, productRelatedPurchases));
+        viewHolderPurchaseProduct.purchaseItemVM.bind(getItem(position));
         viewHolderPurchaseProduct.adapterPurchaseItemBinding.executePendingBindings();
     }
 
     @Override
-    public int getItemCount() {
-        return skuProductsAndPurchasesList.size();
+    public long getItemId(int position) {
+        return stableIds.getId(getItem(position).skuID);
     }
 
     /** ViewHolderPurchasedProduct, which provides product view item. */
     static class ViewHolderPurchaseProduct extends RecyclerView.ViewHolder {
 
-        AdapterPurchaseItemBinding adapterPurchaseItemBinding;
+        final AdapterPurchaseItemBinding adapterPurchaseItemBinding;
+        final PurchaseItemVM purchaseItemVM;
 
         /**
          * Gives product view item and its bindings.
          *
          * @param adapterPurchaseItemBinding Has bindings for the product view item.
+         * @param purchaseItemVM A presenter which is rebound for every product of this view item.
          */
-        ViewHolderPurchaseProduct(AdapterPurchaseItemBinding adapterPurchaseItemBinding) {
+        ViewHolderPurchaseProduct(
+                AdapterPurchaseItemBinding adapterPurchaseItemBinding,
+                PurchaseItemVM purchaseItemVM) {
             super(adapterPurchaseItemBinding.getRoot());
             this.adapterPurchaseItemBinding = adapterPurchaseItemBinding;
+            this.purchaseItemVM = purchaseItemVM;
         }
     }
 }
@@ -21,10 +21,13 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LifecycleObserver;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import com.litekite.monetize.room.database.AppDatabase;
-import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
+import com.litekite.monetize.di.CpuExecutor;
+import com.litekite.monetize.repository.BillingRepository;
+import com.litekite.monetize.worker.TaskGroup;
+import com.litekite.monetize.worker.WorkExecutor;
 import dagger.hilt.android.lifecycle.HiltViewModel;
 import java.util.List;
+import java.util.concurrent.Executor;
 import javax.inject.Inject;
 
 /**
@@ -38,39 +41,67 @@ import javax.inject.Inject;
 @HiltViewModel
 public class PurchasesVM extends AndroidViewModel implements LifecycleObserver {
 
-    private final AppDatabase appDatabase;
-    private LiveData<List<BillingSkuRelatedPurchases>> skuProductsAndPurchasesList =
-            new MutableLiveData<>();
+    private final BillingRepository billingRepository;
+    // Computes the list differences of this screen, cancelled once the screen is left.
+    private final TaskGroup listDiffTaskGroup;
+    private final Executor listDiffExecutor;
+    private LiveData<List<PurchaseItem>> purchaseItems = new MutableLiveData<>();
 
     /**
      * Makes a call to get Sku Product Details and its related Purchases from local database.
      *
      * @param application application An Application Instance.
+     * @param billingRepository Gives the list items of Sku Products and its related Purchases.
+     * @param cpuExecutor An executor in which the list differences are computed.
      */
     @Inject
-    public PurchasesVM(@NonNull Application application, @NonNull AppDatabase appDatabase) {
+    public PurchasesVM(
+            @NonNull Application application,
+            @NonNull BillingRepository billingRepository,
+            @CpuExecutor @NonNull WorkExecutor cpuExecutor) {
         super(application);
-        this.appDatabase = appDatabase;
+        this.billingRepository = billingRepository;
+        this.listDiffTaskGroup = new TaskGroup(cpuExecutor);
+        this.listDiffExecutor =
+                listDiffTaskGroup.asExecutor(
+                        WorkExecutor.Lane.USER_VISIBLE, "PurchasesVM.listDiff");
         // Sync with the local database
         fetchFromDB();
     }
 
     /**
-     * Fetches Sku Products List and its related Purchases stored in the local database and assigns
-     * it to {@link #skuProductsAndPurchasesList} LiveData.
+     * Fetches Sku Products List and its related Purchases as list items, which are shared and may
+     * be prefetched already, and assigns it to {@link #purchaseItems} LiveData.
      */
     private void fetchFromDB() {
-        skuProductsAndPurchasesList = appDatabase.getSkuRelatedPurchases();
+        purchaseItems = billingRepository.getPurchaseItems();
     }
 
     /**
-     * A view gets this {@link #skuProductsAndPurchasesList} and observes for changes and updates
-     * with it.
+     * A view gets this {@link #purchaseItems} and observes for changes and updates with it.
      *
-     * @return a LiveData of Sku Products List and its related Purchases.
+     * @return a LiveData of resolved Product list items.
      */
     @NonNull
-    public LiveData<List<BillingSkuRelatedPurchases>> getSkuProductsAndPurchasesList() {
-        return skuProductsAndPurchasesList;
+    public LiveData<List<PurchaseItem>> getPurchaseItems() {
+        return purchaseItems;
+    }
+
+    /**
+     * The list adapter of the view computes its list differences in this executor, so that they are
+     * not computed for a screen that is left.
+     *
+     * @return an executor in which the list differences are computed.
+     */
+    @NonNull
+    public Executor getListDiffExecutor() {
+        return listDiffExecutor;
+    }
+
+    /** Cancels the list differences that are queued or being computed, as nobody will see them. */
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        listDiffTaskGroup.cancelAll();
     }
 }
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.repository;
+
+import android.app.Application;
+import android.content.res.Resources;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+import com.android.billingclient.api.SkuDetails;
+import com.litekite.monetize.app.MonetizeApp;
+import com.litekite.monetize.billing.BillingConstants;
+import com.litekite.monetize.billing.BillingManager;
+import com.litekite.monetize.billing.PremiumOffer;
+import com.litekite.monetize.di.CpuExecutor;
+import com.litekite.monetize.purchase.PurchaseItem;
+import com.litekite.monetize.room.database.AppDatabase;
+import com.litekite.monetize.room.entity.BillingSkuDetails;
+import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
+import com.litekite.monetize.store.StoreItem;
+import com.litekite.monetize.util.FormatService;
+import com.litekite.monetize.util.LiveDataUtil;
+import com.litekite.monetize.worker.WorkExecutor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.json.JSONException;
+
+/**
+ * BillingRepository, gives Sku Products and its related Purchases from the local database as Store
+ * and Purchases list items, and the Sku Details and Purchase Status of a product.
+ *
+ * <p>Every query has a single LiveData that is shared by all of its observers, so the same data is
+ * queried and held in memory once. The last loaded value is kept in memory, so that a new observer
+ * gets it immediately. A query is only kept alive while at least one of its observers is active.
+ *
+ * <p>The list items can be prefetched before any list is shown, see {@link #prefetch()}. The
+ * Premium Feature is kept ready to be purchased while it is not purchased, see {@link
+ * #startPremiumOfferWarmUp()}.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@Singleton
+public class BillingRepository {
+
+    private static final String TAG = BillingRepository.class.getName();
+
+    /** How long the prefetched list items are kept up to date when nothing observes them. */
+    public static final long PREFETCH_TTL_IN_MILLIS = 30 * 1000;
+
+    private final AppDatabase appDatabase;
+    private final BillingManager billingManager;
+    private final WorkExecutor cpuExecutor;
+    private final MutableLiveData<PremiumOffer> premiumOffer = new MutableLiveData<>();
+    private final Map<String, LiveData<Boolean>> isSkuPurchased = new HashMap<>();
+    private final Map<String, LiveData<String>> lastPurchaseTokens = new HashMap<>();
+    private final Map<String, LiveData<BillingSkuDetails>> skuDetails = new HashMap<>();
+    private final LiveData<List<StoreItem>> storeItems;
+    private final LiveData<List<PurchaseItem>> purchaseItems;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Observer<Object> prefetchObserver = value -> {};
+    private final Runnable prefetchExpiry = this::stopPrefetch;
+    private boolean isPrefetching;
+    private boolean isPremiumOfferWarm;
+    // Changes whenever a parsed Premium Feature offer goes stale, see setPremiumOffer().
+    private int premiumOfferGeneration;
+
+    /**
+     * Parses the Premium Feature Sku Details whenever they change, and makes it ready to be
+     * purchased. A parsed offer is dropped if newer Sku Details were given meanwhile, or if the
+     * Premium Feature was purchased.
+     */
+    private final Observer<BillingSkuDetails> premiumSkuDetailsObserver =
+            billingSkuDetails -> {
+                if (billingSkuDetails == null) {
+                    return;
+                }
+                final int generation = ++premiumOfferGeneration;
+                cpuExecutor.execute(
+                        WorkExecutor.Lane.USER_VISIBLE,
+                        "BillingRepository.parsePremiumOffer",
+                        () -> {
+                            try {
+                                final PremiumOffer offer =
+                                        new PremiumOffer(
+                                                new SkuDetails(billingSkuDetails.originalJson));
+                                mainHandler.post(() -> setPremiumOffer(generation, offer));
+                            } catch (JSONException e) {
+                                e.printStackTrace();
+                            }
+                        });
+            };
+
+    /**
+     * Keeps the Premium Feature ready to be purchased only while it is not purchased. The billing
+     * service connection is made ready by then too.
+     */
+    private final Observer<Boolean> isPremiumPurchasedObserver =
+            isPurchased -> {
+                final LiveData<BillingSkuDetails> premiumSkuDetails =
+                        getSkuDetails(BillingConstants.SKU_UNLOCK_APP_FEATURES);
+                if (Boolean.FALSE.equals(isPurchased) && !isPremiumOfferWarm) {
+                    MonetizeApp.printLog(TAG, "premiumOffer: warming up");
+                    premiumSkuDetails.observeForever(premiumSkuDetailsObserver);
+                    billingManager.connectToPlayBillingService();
+                    isPremiumOfferWarm = true;
+                } else if (Boolean.TRUE.equals(isPurchased) && isPremiumOfferWarm) {
+                    MonetizeApp.printLog(TAG, "premiumOffer: purchased, releasing");
+                    premiumSkuDetails.removeObserver(premiumSkuDetailsObserver);
+                    premiumOffer.setValue(null);
+                    premiumOfferGeneration++;
+                    isPremiumOfferWarm = false;
+                }
+            };
+
+    /**
+     * Makes the Store and Purchases list items from the Sku Products and its related Purchases
+     * stored in the local database, which are queried once for both.
+     *
+     * @param application An Application Instance.
+     * @param appDatabase Provides access to the local database.
+     * @param billingManager Provides access to BillingClient which perform Product Purchases from
+     *     Google Play Billing Library.
+     * @param cpuExecutor An executor in which the products are resolved into list items.
+     * @param formatService Formats the prices and dates of the list items.
+     */
+    @Inject
+    public BillingRepository(
+            @NonNull Application application,
+            @NonNull AppDatabase appDatabase,
+            @NonNull BillingManager billingManager,
+            @CpuExecutor @NonNull WorkExecutor cpuExecutor,
+            @NonNull FormatService formatService) {
+        this.appDatabase = appDatabase;
+        this.billingManager = billingManager;
+        this.cpuExecutor = cpuExecutor;
+        final Resources resources = application.getResources();
+        final LiveData<List<BillingSkuRelatedPurchases>> skuRelatedPurchases =
+                appDatabase.getSkuRelatedPurchases();
+        // The list items are mapped for the application rather than for a screen, since they are
+        // kept for the next observer, either a screen or the prefetch. Mapping only runs while one
+        // of them observes, and a stale mapping is dropped.
+        storeItems =
+                LiveDataUtil.mapAsync(
+                        skuRelatedPurchases,
+                        cpuExecutor.asExecutor(
+                                WorkExecutor.Lane.USER_VISIBLE, "BillingRepository.mapStoreItems"),
+                        skuRelatedPurchasesList -> {
+                            final List<StoreItem> items =
+                                    new ArrayList<>(skuRelatedPurchasesList.size());
+                            for (BillingSkuRelatedPurchases productRelatedPurchases :
+                                    skuRelatedPurchasesList) {
+                                items.add(
+                                        StoreItem.from(
+                                                resources, formatService, productRelatedPurchases));
+                            }
+                            return items;
+                        });
+        purchaseItems =
+                LiveDataUtil.mapAsync(
+                        skuRelatedPurchases,
+                        cpuExecutor.asExecutor(
+                                WorkExecutor.Lane.USER_VISIBLE,
+                                "BillingRepository.mapPurchaseItems"),
+                        skuRelatedPurchasesList -> {
+                            final List<PurchaseItem> items =
+                                    new ArrayList<>(skuRelatedPurchasesList.size());
+                            for (BillingSkuRelatedPurchases productRelatedPurchases :
+                                    skuRelatedPurchasesList) {
+                                items.add(
+                                        PurchaseItem.from(
+                                                resources, formatService, productRelatedPurchases));
+                            }
+                            return items;
+                        });
+    }
+
+    /** @return a LiveData of Store list items. */
+    @NonNull
+    public LiveData<List<StoreItem>> getStoreItems() {
+        return storeItems;
+    }
+
+    /** @return a LiveData of Purchases list items. */
+    @NonNull
+    public LiveData<List<PurchaseItem>> getPurchaseItems() {
+        return purchaseItems;
+    }
+
+    /**
+     * Gives whether the given Sku Product was purchased, which changes only when its Purchase
+     * Status changes.
+     *
+     * @param skuID A Sku Product ID.
+     * @return a LiveData of whether the Sku Product was purchased or not.
+     */
+    @MainThread
+    @NonNull
+    public LiveData<Boolean> getIsThisSkuPurchased(@NonNull String skuID) {
+        LiveData<Boolean> isPurchased = isSkuPurchased.get(skuID);
+        if (isPurchased == null) {
+            isPurchased = appDatabase.getDistinctIsThisSkuPurchased(skuID);
+            isSkuPurchased.put(skuID, isPurchased);
+        }
+        return isPurchased;
+    }
+
+    /**
+     * Gives the Purchase Token of the latest purchase of the given Sku Product, which changes only
+     * when it is purchased again.
+     *
+     * @param skuID A Sku Product ID.
+     * @return a LiveData of the Purchase Token, null if the Sku Product was not purchased yet.
+     */
+    @MainThread
+    @NonNull
+    public LiveData<String> getLastPurchaseToken(@NonNull String skuID) {
+        LiveData<String> purchaseToken = lastPurchaseTokens.get(skuID);
+        if (purchaseToken == null) {
+            purchaseToken = appDatabase.getDistinctLastPurchaseToken(skuID);
+            lastPurchaseTokens.put(skuID, purchaseToken);
+        }
+        return purchaseToken;
+    }
+
+    /**
+     * Gives the Sku Details of the given Sku Product, which changes only when its Sku Details
+     * change.
+     *
+     * @param skuID A Sku Product ID.
+     * @return a LiveData of the Sku Details.
+     */
+    @MainThread
+    @NonNull
+    public LiveData<BillingSkuDetails> getSkuDetails(@NonNull String skuID) {
+        LiveData<BillingSkuDetails> details = skuDetails.get(skuID);
+        if (details == null) {
+            details = appDatabase.getDistinctSkuDetails(skuID);
+            skuDetails.put(skuID, details);
+        }
+        return details;
+    }
+
+    /**
+     * Gives the Premium Feature ready to be purchased, which has a value as soon as the Premium
+     * Feature is known to be not purchased and its Sku Details are parsed.
+     *
+     * @return a LiveData of the Premium Feature ready to be purchased, null if it is purchased.
+     */
+    @NonNull
+    public LiveData<PremiumOffer> getPremiumOffer() {
+        return premiumOffer;
+    }
+
+    /**
+     * Makes the parsed Premium Feature ready to be purchased, unless it went stale while it was
+     * being parsed.
+     *
+     * @param generation The generation of the offer when its parsing started.
+     * @param offer The parsed Premium Feature.
+     */
+    @MainThread
+    private void setPremiumOffer(int generation, @NonNull PremiumOffer offer) {
+        if (generation != premiumOfferGeneration || !isPremiumOfferWarm) {
+            MonetizeApp.printLog(TAG, "premiumOffer: dropping a stale offer");
+            return;
+        }
+        premiumOffer.setValue(offer);
+    }
+
+    /**
+     * Starts watching the Premium Feature Purchase Status for the lifetime of the application, in
+     * order to keep {@link #getPremiumOffer()} ready while the Premium Feature is not purchased.
+     */
+    @MainThread
+    public void startPremiumOfferWarmUp() {
+        getIsThisSkuPurchased(BillingConstants.SKU_UNLOCK_APP_FEATURES)
+                .observeForever(isPremiumPurchasedObserver);
+    }
+
+    /**
+     * Starts loading the Store and Purchases list items ahead of showing them, and keeps them up to
+     * date for {@link #PREFETCH_TTL_IN_MILLIS}. Prefetching again extends it.
+     */
+    @MainThread
+    public void prefetch() {
+        if (!isPrefetching) {
+            MonetizeApp.printLog(TAG, "prefetch: started");
+            storeItems.observeForever(prefetchObserver);
+            purchaseItems.observeForever(prefetchObserver);
+            isPrefetching = true;
+        }
+        mainHandler.removeCallbacks(prefetchExpiry);
+        mainHandler.postDelayed(prefetchExpiry, PREFETCH_TTL_IN_MILLIS);
+    }
+
+    /**
+     * Stops keeping the prefetched list items up to date. The last loaded list items stay in memory
+     * and are given to the next observer, which loads them again.
+     */
+    @MainThread
+    private void stopPrefetch() {
+        MonetizeApp.printLog(TAG, "prefetch: expired");
+        storeItems.removeObserver(prefetchObserver);
+        purchaseItems.removeObserver(prefetchObserver);
+        isPrefetching = false;
+    }
+}
@@ -45,7 +45,10 @@ public interface BillingDao {
 
     @NonNull
     @Transaction
-    @Query("select * from billing_sku_details where sku_id != '" + SKU_UNLOCK_APP_FEATURES + "'")
+    @Query(
+            "select * from billing_sku_details where sku_id != '"
+                    + SKU_UNLOCK_APP_FEATURES
+                    + "' order by price_amount_micros")
     LiveData<List<BillingSkuRelatedPurchases>> getSkuRelatedPurchases();
 
     @NonNull
@@ -56,9 +59,40 @@ public interface BillingDao {
     @Query("select exists(select * from billing_purchase_details where sku_id = :skuID)")
     LiveData<Integer> getIsThisSkuPurchased(@NonNull String skuID);
 
+    @NonNull
+    @Query(
+            "select purchase_token from billing_purchase_details where sku_id = :skuID"
+                    + " order by purchase_time desc limit 1")
+    LiveData<String> getLastPurchaseToken(@NonNull String skuID);
+
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertSkuDetails(@NonNull List<BillingSkuDetails> billingSkuDetails);
 
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertPurchaseDetails(@NonNull List<BillingPurchaseDetails> billingPurchaseDetails);
+
+    @Query(
+            "update billing_purchase_count set compacted_through = :compactedThrough"
+                    + " where sku_id = :skuID and compacted_through < :compactedThrough")
+    void updateCompactedThrough(@NonNull String skuID, long compactedThrough);
+
+    @Query(
+            "delete from billing_purchase_details"
+                    + " where sku_id = :skuID and purchase_time <= :compactedThrough")
+    int deleteCompactedPurchaseDetails(@NonNull String skuID, long compactedThrough);
+
+    /**
+     * Folds the purchases of a SKU that were made at or before the given time into its purchase
+     * count. The count itself is already up to date, so this only moves the compaction mark and
+     * removes the rows.
+     *
+     * @param skuID The SKU whose purchases to be compacted.
+     * @param compactedThrough Purchases made at or before this time in millis are removed.
+     * @return the number of purchase rows removed.
+     */
+    @Transaction
+    default int compactPurchaseDetails(@NonNull String skuID, long compactedThrough) {
+        updateCompactedThrough(skuID, compactedThrough);
+        return deleteCompactedPurchaseDetails(skuID, compactedThrough);
+    }
 }
@@ -15,18 +15,30 @@
  */
 package com.litekite.monetize.room.database;
 
+import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.Transformations;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import com.litekite.monetize.app.MonetizeApp;
 import com.litekite.monetize.room.dao.BillingDao;
+import com.litekite.monetize.room.entity.BillingPurchaseCount;
 import com.litekite.monetize.room.entity.BillingPurchaseDetails;
 import com.litekite.monetize.room.entity.BillingSkuDetails;
 import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Executor;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 /**
  * Database Class, Creates Database, Database Instance and destroys Database instance.
@@ -41,11 +53,105 @@ import java.util.List;
  * @since 1.0
  */
 @Database(
-        entities = {BillingSkuDetails.class, BillingPurchaseDetails.class},
-        version = 1)
+        entities = {
+            BillingSkuDetails.class,
+            BillingPurchaseDetails.class,
+            BillingPurchaseCount.class
+        },
+        version = 3)
 public abstract class AppDatabase extends RoomDatabase {
 
+    private static final String TAG = AppDatabase.class.getName();
     private static final String DATABASE_NAME = "MonetizeAppDB";
+    private static final String INSERT_PURCHASE_DETAILS =
+            "insert or replace into billing_purchase_details"
+                    + " (purchase_token, order_id, sku_id, purchase_time) values (?, ?, ?, ?)";
+    // Rows written per transaction by a bulk insert
+    public static final int BULK_INSERT_CHUNK_SIZE = 500;
+
+    /**
+     * Keeps {@link BillingPurchaseCount} in step with every Purchase Details insert. A purchase
+     * that was already compacted is ignored, a purchase token that is stored already is replaced
+     * without being counted twice.
+     *
+     * <p>The count row is created with "where not exists" instead of "insert or ignore", as the
+     * conflict clause of the outer "insert or replace" overrides the one inside a trigger.
+     */
+    private static final String CREATE_PURCHASE_COUNT_TRIGGER =
+            "create trigger if not exists billing_purchase_count_insert"
+                    + " before insert on billing_purchase_details"
+                    + " begin"
+                    + " select raise(ignore) where new.purchase_time <= ifnull("
+                    + "(select compacted_through from billing_purchase_count"
+                    + " where sku_id = new.sku_id), -1);"
+                    + " insert into billing_purchase_count"
+                    + " (sku_id, purchase_count, compacted_through) select new.sku_id, 0, -1"
+                    + " where not exists (select 1 from billing_purchase_count"
+                    + " where sku_id = new.sku_id);"
+                    + " update billing_purchase_count set purchase_count = purchase_count + 1"
+                    + " where sku_id = new.sku_id and not exists"
+                    + " (select 1 from billing_purchase_details"
+                    + " where purchase_token = new.purchase_token);"
+                    + " end";
+
+    /**
+     * Adds typed SKU Details columns (price in micros, currency code, title, description and
+     * subscription period) and fills them from the stored SKU Details JSON, so that the store can
+     * sort and filter in SQL without parsing JSON at runtime.
+     */
+    static final Migration MIGRATION_1_2 =
+            new Migration(1, 2) {
+                @Override
+                public void migrate(@NonNull SupportSQLiteDatabase database) {
+                    database.execSQL(
+                            "alter table billing_sku_details add column price_amount_micros"
+                                    + " integer not null default 0");
+                    database.execSQL(
+                            "alter table billing_sku_details add column price_currency_code"
+                                    + " text not null default ''");
+                    database.execSQL(
+                            "alter table billing_sku_details add column title"
+                                    + " text not null default ''");
+                    database.execSQL(
+                            "alter table billing_sku_details add column description"
+                                    + " text not null default ''");
+                    database.execSQL(
+                            "alter table billing_sku_details add column subscription_period"
+                                    + " text not null default ''");
+                    backfillSkuDetailsColumns(database);
+                }
+            };
+
+    /**
+     * Adds the Purchase Count table, counts the purchases stored so far and creates the trigger
+     * that keeps the counts up to date.
+     */
+    static final Migration MIGRATION_2_3 =
+            new Migration(2, 3) {
+                @Override
+                public void migrate(@NonNull SupportSQLiteDatabase database) {
+                    database.execSQL(
+                            "create table if not exists billing_purchase_count"
+                                    + " (sku_id text not null, purchase_count integer not null,"
+                                    + " compacted_through integer not null, primary key(sku_id))");
+                    database.execSQL(
+                            "insert into billing_purchase_count"
+                                    + " (sku_id, purchase_count, compacted_through)"
+                                    + " select sku_id, count(*), -1 from billing_purchase_details"
+                                    + " group by sku_id");
+                    database.execSQL(CREATE_PURCHASE_COUNT_TRIGGER);
+                }
+            };
+
+    /** Creates the triggers that Room does not know about when the database is created. */
+    static final Callback DATABASE_CALLBACK =
+            new Callback() {
+                @Override
+                public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                    super.onCreate(db);
+                    db.execSQL(CREATE_PURCHASE_COUNT_TRIGGER);
+                }
+            };
 
     private static volatile AppDatabase APP_DATABASE_INSTANCE;
 
@@ -53,17 +159,56 @@ public abstract class AppDatabase extends RoomDatabase {
      * Creates Room Database Instance if was not already initiated.
      *
      * @param context Activity or Application Context.
+     * @param queryExecutor An executor for blocking I/O, which runs the asynchronous queries, e.g.
+     *     the ones observed through LiveData.
      * @return {@link #APP_DATABASE_INSTANCE}
      */
     @NonNull
-    public static synchronized AppDatabase getAppDatabase(@NonNull Context context) {
+    public static synchronized AppDatabase getAppDatabase(
+            @NonNull Context context, @NonNull Executor queryExecutor) {
         if (APP_DATABASE_INSTANCE == null) {
             APP_DATABASE_INSTANCE =
-                    Room.databaseBuilder(context, AppDatabase.class, DATABASE_NAME).build();
+                    Room.databaseBuilder(context, AppDatabase.class, DATABASE_NAME)
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3)
+                            .addCallback(DATABASE_CALLBACK)
+                            .setQueryExecutor(queryExecutor)
+                            .build();
         }
         return APP_DATABASE_INSTANCE;
     }
 
+    /**
+     * Parses the SKU Details JSON of every stored SKU once and writes its values into the typed
+     * columns.
+     *
+     * @param database The database that is being migrated.
+     */
+    private static void backfillSkuDetailsColumns(@NonNull SupportSQLiteDatabase database) {
+        try (Cursor cursor =
+                database.query("select sku_id, original_json from billing_sku_details")) {
+            while (cursor.moveToNext()) {
+                try {
+                    JSONObject skuDetails = new JSONObject(cursor.getString(1));
+                    ContentValues values = new ContentValues();
+                    values.put("price_amount_micros", skuDetails.optLong("price_amount_micros"));
+                    values.put("price_currency_code", skuDetails.optString("price_currency_code"));
+                    values.put("title", skuDetails.optString("title"));
+                    values.put("description", skuDetails.optString("description"));
+                    values.put("subscription_period", skuDetails.optString("subscriptionPeriod"));
+                    database.update(
+                            "billing_sku_details",
+                            SQLiteDatabase.CONFLICT_NONE,
+                            values,
+                            "sku_id = ?",
+                            new Object[] {cursor.getString(0)});
+                } catch (JSONException e) {
+                    // The next SKU Details query from Google Play replaces this row anyway.
+                    MonetizeApp.printLog(TAG, "backfillSkuDetailsColumns: " + e.getMessage());
+                }
+            }
+        }
+    }
+
     @NonNull
     public LiveData<Boolean> getIsThisSkuPurchased(@NonNull String skuID) {
         return Transformations.map(
@@ -75,6 +220,42 @@ public abstract class AppDatabase extends RoomDatabase {
         return getBillingDao().getSkuDetails(skuID);
     }
 
+    /**
+     * Same as {@link #getIsThisSkuPurchased(String)}, but emits only when the purchased state
+     * actually changes and not on every write to the Purchase Details table.
+     *
+     * @param skuID The SKU to be checked.
+     * @return a LiveData of whether the SKU was purchased or not.
+     */
+    @NonNull
+    public LiveData<Boolean> getDistinctIsThisSkuPurchased(@NonNull String skuID) {
+        return Transformations.distinctUntilChanged(getIsThisSkuPurchased(skuID));
+    }
+
+    /**
+     * Gives the purchase token of the latest purchase of the given SKU, which emits only when the
+     * SKU is purchased again and not on every write to the Purchase Details table.
+     *
+     * @param skuID The SKU whose purchase token to be given.
+     * @return a LiveData of the purchase token, null if the SKU was not purchased yet.
+     */
+    @NonNull
+    public LiveData<String> getDistinctLastPurchaseToken(@NonNull String skuID) {
+        return Transformations.distinctUntilChanged(getBillingDao().getLastPurchaseToken(skuID));
+    }
+
+    /**
+     * Same as {@link #getSkuDetails(String)}, but emits only when the content of the SKU Details
+     * actually changes and not on every write to the SKU Details table.
+     *
+     * @param skuID The SKU whose details to be given.
+     * @return a LiveData of SKU Details.
+     */
+    @NonNull
+    public LiveData<BillingSkuDetails> getDistinctSkuDetails(@NonNull String skuID) {
+        return Transformations.distinctUntilChanged(getSkuDetails(skuID));
+    }
+
     @NonNull
     public LiveData<List<BillingSkuRelatedPurchases>> getSkuRelatedPurchases() {
         return getBillingDao().getSkuRelatedPurchases();
@@ -89,6 +270,68 @@ public abstract class AppDatabase extends RoomDatabase {
         getBillingDao().insertSkuDetails(billingSkuDetailsList);
     }
 
+    /**
+     * Inserts a large number of Purchase records, for instance while restoring a purchase history.
+     * Unlike {@link #insertPurchaseDetails(List)}, one compiled insert statement is reused for all
+     * the rows, values are bound straight from the source records and rows are committed in chunks.
+     *
+     * @param source The Purchase records to be inserted.
+     * @param chunkSize Number of rows committed in a single transaction.
+     * @return the number of rows, chunks and the time taken to insert them.
+     */
+    @NonNull
+    public BulkInsertStats bulkInsertPurchaseDetails(
+            @NonNull PurchaseRecordSource source, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        final long startTime = System.nanoTime();
+        final int size = source.size();
+        final int chunkCount = (size + chunkSize - 1) / chunkSize;
+        final SupportSQLiteStatement statement = compileStatement(INSERT_PURCHASE_DETAILS);
+        try {
+            for (int chunkStart = 0; chunkStart < size; chunkStart += chunkSize) {
+                final int from = chunkStart;
+                final int to = Math.min(chunkStart + chunkSize, size);
+                runInTransaction(
+                        () -> {
+                            for (int i = from; i < to; i++) {
+                                statement.bindString(1, source.getPurchaseToken(i));
+                                statement.bindString(2, source.getOrderID(i));
+                                statement.bindString(3, source.getSkuID(i));
+                                statement.bindLong(4, source.getPurchaseTime(i));
+                                statement.executeInsert();
+                            }
+                        });
+            }
+        } finally {
+            try {
+                statement.close();
+            } catch (IOException e) {
+                MonetizeApp.printLog(TAG, "bulkInsertPurchaseDetails: " + e.getMessage());
+            }
+        }
+        final BulkInsertStats stats =
+                new BulkInsertStats(size, chunkCount, System.nanoTime() - startTime);
+        MonetizeApp.printLog(TAG, "bulkInsertPurchaseDetails: " + stats);
+        return stats;
+    }
+
+    /**
+     * Folds the purchases of a SKU that are older than the retention window into its purchase
+     * count, so that the Purchase Details table does not grow with every consumed purchase.
+     *
+     * @param skuID The SKU whose purchases to be compacted.
+     * @param retentionInMillis Purchases older than this are compacted.
+     */
+    public void compactPurchaseDetails(@NonNull String skuID, long retentionInMillis) {
+        final long compactedThrough = System.currentTimeMillis() - retentionInMillis;
+        final int compactedRows = getBillingDao().compactPurchaseDetails(skuID, compactedThrough);
+        if (compactedRows > 0) {
+            MonetizeApp.printLog(TAG, "compacted " + compactedRows + " purchases of " + skuID);
+        }
+    }
+
     /**
      * Gives BillingDao Database Operations.
      *
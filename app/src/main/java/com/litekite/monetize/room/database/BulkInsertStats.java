@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.room.database;
+
+import androidx.annotation.NonNull;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a bulk insert, has the number of rows, transaction chunks and the time it took.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public final class BulkInsertStats {
+
+    public final int rowCount;
+    public final int chunkCount;
+    public final long elapsedNanos;
+
+    BulkInsertStats(int rowCount, int chunkCount, long elapsedNanos) {
+        this.rowCount = rowCount;
+        this.chunkCount = chunkCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** @return the insert throughput in rows per second. */
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return rowCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.US,
+                "%d rows in %d chunks, %d ms, %.0f rows/sec",
+                rowCount,
+                chunkCount,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                getRowsPerSecond());
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.room.database;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A read only, index based view over Purchase records that are to be bulk inserted. Values are read
+ * straight from the source records, so no Purchase Details entity is created for each row.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @see AppDatabase#bulkInsertPurchaseDetails(PurchaseRecordSource, int)
+ * @since 1.0
+ */
+public interface PurchaseRecordSource {
+
+    int size();
+
+    @NonNull
+    String getPurchaseToken(int index);
+
+    @NonNull
+    String getOrderID(int index);
+
+    @NonNull
+    String getSkuID(int index);
+
+    long getPurchaseTime(int index);
+}
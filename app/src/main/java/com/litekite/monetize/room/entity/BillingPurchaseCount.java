@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.room.entity;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import java.util.Objects;
+
+/**
+ * Database Entity, has Schema about the Purchase Count of a SKU.
+ *
+ * <p>Rows are kept in step with {@link BillingPurchaseDetails} by SQLite triggers. Purchases that
+ * are older than {@link #compactedThrough} were folded into {@link #purchaseCount} and removed from
+ * the Purchase Details table.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@Entity(tableName = "billing_purchase_count")
+public class BillingPurchaseCount {
+
+    @NonNull
+    @PrimaryKey
+    @ColumnInfo(name = "sku_id")
+    public String skuID = "";
+
+    @ColumnInfo(name = "purchase_count")
+    public long purchaseCount;
+
+    @ColumnInfo(name = "compacted_through")
+    public long compactedThrough = -1;
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BillingPurchaseCount that = (BillingPurchaseCount) o;
+        return purchaseCount == that.purchaseCount
+                && compactedThrough == that.compactedThrough
+                && skuID.equals(that.skuID);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(skuID, purchaseCount, compactedThrough);
+    }
+}
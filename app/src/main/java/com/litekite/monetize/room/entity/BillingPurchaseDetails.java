@@ -16,10 +16,12 @@
 package com.litekite.monetize.room.entity;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
+import java.util.Objects;
 
 /**
  * Database Entity, has Schema about Purchase Details.
@@ -46,4 +48,24 @@ public class BillingPurchaseDetails {
 
     @ColumnInfo(name = "purchase_time")
     public long purchaseTime;
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BillingPurchaseDetails that = (BillingPurchaseDetails) o;
+        return purchaseTime == that.purchaseTime
+                && purchaseToken.equals(that.purchaseToken)
+                && orderID.equals(that.orderID)
+                && skuID.equals(that.skuID);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(purchaseToken, orderID, skuID, purchaseTime);
+    }
 }
@@ -16,10 +16,12 @@
 package com.litekite.monetize.room.entity;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
+import java.util.Objects;
 
 /**
  * Database Entity, has Schema about SKU Details.
@@ -44,7 +46,60 @@ public class BillingSkuDetails {
     @ColumnInfo(name = "sku_price")
     public String skuPrice = "";
 
+    @ColumnInfo(name = "price_amount_micros", defaultValue = "0")
+    public long priceAmountMicros;
+
+    @NonNull
+    @ColumnInfo(name = "price_currency_code", defaultValue = "''")
+    public String priceCurrencyCode = "";
+
+    @NonNull
+    @ColumnInfo(name = "title", defaultValue = "''")
+    public String title = "";
+
+    @NonNull
+    @ColumnInfo(name = "description", defaultValue = "''")
+    public String description = "";
+
+    @NonNull
+    @ColumnInfo(name = "subscription_period", defaultValue = "''")
+    public String subscriptionPeriod = "";
+
     @NonNull
     @ColumnInfo(name = "original_json")
     public String originalJson = "";
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BillingSkuDetails that = (BillingSkuDetails) o;
+        return priceAmountMicros == that.priceAmountMicros
+                && skuID.equals(that.skuID)
+                && skuType.equals(that.skuType)
+                && skuPrice.equals(that.skuPrice)
+                && priceCurrencyCode.equals(that.priceCurrencyCode)
+                && title.equals(that.title)
+                && description.equals(that.description)
+                && subscriptionPeriod.equals(that.subscriptionPeriod)
+                && originalJson.equals(that.originalJson);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                skuID,
+                skuType,
+                skuPrice,
+                priceAmountMicros,
+                priceCurrencyCode,
+                title,
+                description,
+                subscriptionPeriod,
+                originalJson);
+    }
 }
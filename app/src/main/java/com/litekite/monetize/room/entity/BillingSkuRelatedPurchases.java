@@ -16,10 +16,12 @@
 package com.litekite.monetize.room.entity;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.room.Embedded;
 import androidx.room.Relation;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * An Entity, has Schema about SKU Details that has related Purchase Details.
@@ -38,4 +40,54 @@ public class BillingSkuRelatedPurchases {
             entityColumn = "sku_id",
             entity = BillingPurchaseDetails.class)
     public List<BillingPurchaseDetails> billingPurchaseDetails = new ArrayList<>();
+
+    @Nullable
+    @Relation(parentColumn = "sku_id", entityColumn = "sku_id", entity = BillingPurchaseCount.class)
+    public BillingPurchaseCount billingPurchaseCount;
+
+    /**
+     * Gives the number of purchases made for this SKU, including the purchases that were already
+     * compacted.
+     *
+     * @return the purchase count of this SKU.
+     */
+    public long getPurchaseCount() {
+        return billingPurchaseCount != null ? billingPurchaseCount.purchaseCount : 0;
+    }
+
+    /**
+     * Gives the purchase token of the latest purchase made for this SKU.
+     *
+     * @return the purchase token of the latest purchase, empty if this SKU was not purchased yet.
+     */
+    @NonNull
+    public String getLastPurchaseToken() {
+        BillingPurchaseDetails lastPurchaseDetails = null;
+        for (BillingPurchaseDetails purchaseDetails : billingPurchaseDetails) {
+            if (lastPurchaseDetails == null
+                    || purchaseDetails.purchaseTime > lastPurchaseDetails.purchaseTime) {
+                lastPurchaseDetails = purchaseDetails;
+            }
+        }
+        return lastPurchaseDetails != null ? lastPurchaseDetails.purchaseToken : "";
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BillingSkuRelatedPurchases that = (BillingSkuRelatedPurchases) o;
+        return billingSkuDetails.equals(that.billingSkuDetails)
+                && billingPurchaseDetails.equals(that.billingPurchaseDetails)
+                && Objects.equals(billingPurchaseCount, that.billingPurchaseCount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(billingSkuDetails, billingPurchaseDetails, billingPurchaseCount);
+    }
 }
@@ -17,7 +17,10 @@ package com.litekite.monetize.startup;
 
 import android.content.Context;
 import com.litekite.monetize.billing.BillingManager;
+import com.litekite.monetize.di.CpuExecutor;
+import com.litekite.monetize.di.IoExecutor;
 import com.litekite.monetize.network.NetworkManager;
+import com.litekite.monetize.repository.BillingRepository;
 import com.litekite.monetize.room.database.AppDatabase;
 import com.litekite.monetize.worker.WorkExecutor;
 import dagger.hilt.EntryPoint;
@@ -42,9 +45,15 @@ interface InitializerEntryPoint {
 
     BillingManager getBillingManager();
 
+    BillingRepository getBillingRepository();
+
     AppDatabase getAppDatabase();
 
     NetworkManager getNetworkManager();
 
-    WorkExecutor getWorkExecutor();
+    @CpuExecutor
+    WorkExecutor getCpuExecutor();
+
+    @IoExecutor
+    WorkExecutor getIoExecutor();
 }
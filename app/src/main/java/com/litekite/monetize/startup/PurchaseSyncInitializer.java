@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.startup;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+import androidx.work.WorkManager;
+import androidx.work.WorkManagerInitializer;
+import com.litekite.monetize.worker.PurchaseSyncWorker;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Schedules {@link PurchaseSyncWorker} during app start-up by AppStartup Library, once {@link
+ * WorkManager} is initialized.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public class PurchaseSyncInitializer implements Initializer<WorkManager> {
+
+    @NonNull
+    @Override
+    public WorkManager create(@NonNull Context context) {
+        PurchaseSyncWorker.schedule(context);
+        return WorkManager.getInstance(context);
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.singletonList(WorkManagerInitializer.class);
+    }
+}
@@ -18,12 +18,16 @@ package com.litekite.monetize.startup;
 import android.content.Context;
 import androidx.annotation.NonNull;
 import androidx.startup.Initializer;
+import com.litekite.monetize.BuildConfig;
+import com.litekite.monetize.app.MonetizeApp;
 import com.litekite.monetize.worker.WorkExecutor;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Initializes {@link WorkExecutor} during app start-up by AppStartup Library
+ * Initializes the CPU-bound and the I/O-bound {@link WorkExecutor}s during app start-up by
+ * AppStartup Library, and logs a snapshot of their metrics periodically on debug builds. It gives
+ * the CPU-bound one.
  *
  * @author Vignesh S
  * @version 1.0, 29/03/2021
@@ -31,10 +35,24 @@ import java.util.List;
  */
 public class WorkExecutorInitializer implements Initializer<WorkExecutor> {
 
+    private static final String TAG = WorkExecutorInitializer.class.getName();
+    private static final long SNAPSHOT_PERIOD_IN_MILLIS = 60 * 1000;
+
     @NonNull
     @Override
     public WorkExecutor create(@NonNull Context context) {
-        return InitializerEntryPoint.getEntryPoint(context).getWorkExecutor();
+        final InitializerEntryPoint entryPoint = InitializerEntryPoint.getEntryPoint(context);
+        final WorkExecutor cpuExecutor = entryPoint.getCpuExecutor();
+        final WorkExecutor ioExecutor = entryPoint.getIoExecutor();
+        if (BuildConfig.DEBUG) {
+            cpuExecutor.scheduleSnapshots(
+                    SNAPSHOT_PERIOD_IN_MILLIS,
+                    snapshot -> MonetizeApp.printLog(TAG, "CPU executor, " + snapshot));
+            ioExecutor.scheduleSnapshots(
+                    SNAPSHOT_PERIOD_IN_MILLIS,
+                    snapshot -> MonetizeApp.printLog(TAG, "I/O executor, " + snapshot));
+        }
+        return cpuExecutor;
     }
 
     @NonNull
@@ -18,27 +18,24 @@ package com.litekite.monetize.store;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.databinding.DataBindingUtil;
 import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
-
+import androidx.recyclerview.widget.LinearLayoutManager;
 import com.litekite.monetize.R;
 import com.litekite.monetize.base.BaseActivity;
 import com.litekite.monetize.billing.BillingManager;
 import com.litekite.monetize.databinding.ActivityStoreBinding;
-import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
-
-import java.util.ArrayList;
+import com.litekite.monetize.metrics.PurchaseFunnelTracer;
+import dagger.hilt.android.AndroidEntryPoint;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
 import javax.inject.Inject;
 
-import dagger.hilt.android.AndroidEntryPoint;
-
 /**
  * StoreActivity, which displays inApp and subscription products as a list and each products has its
  * own name and price and users buy them by tapping buy button. Purchases made from Google Play
@@ -51,21 +48,27 @@ import dagger.hilt.android.AndroidEntryPoint;
 @AndroidEntryPoint
 public class StoreActivity extends BaseActivity {
 
-    private final List<BillingSkuRelatedPurchases> skuProductsAndPurchasesList = new ArrayList<>();
     @Inject BillingManager billingManager;
+    @Inject PurchaseFunnelTracer purchaseFunnelTracer;
     private ActivityStoreBinding storeBinding;
     private StoreAdapter storeAdapter;
 
+    // The last Purchase Token of each product that was shown, to trace a purchase as shown once.
+    private final Map<String, String> shownPurchaseTokens = new HashMap<>();
+
     /**
      * Observes changes and updates of Sku Products and Purchases which is stored in local database.
-     * Updates observed changes to the products list.
+     * Submits observed changes to the products list, which binds only the changed products.
      */
-    private final Observer<List<BillingSkuRelatedPurchases>> skuProductsAndPurchasesObserver =
-            skuRelatedPurchasesList -> {
-                if (skuRelatedPurchasesList != null && skuRelatedPurchasesList.size() > 0) {
-                    StoreActivity.this.skuProductsAndPurchasesList.clear();
-                    StoreActivity.this.skuProductsAndPurchasesList.addAll(skuRelatedPurchasesList);
-                    StoreActivity.this.storeAdapter.notifyDataSetChanged();
+    private final Observer<List<StoreItem>> storeItemsObserver =
+            storeItems -> {
+                if (storeItems != null && storeItems.size() > 0) {
+                    setUiState(UI_STATE_LIST_DIFF);
+                    StoreActivity.this.storeAdapter.submitList(
+                            storeItems, () -> setUiStateForNextFrame(UI_STATE_LIST_REBIND));
+                    for (StoreItem storeItem : storeItems) {
+                        markShown(storeItem.skuID, storeItem.lastPurchaseToken);
+                    }
                 }
             };
 
@@ -102,8 +105,32 @@ public class StoreActivity extends BaseActivity {
                 storeBinding.tbWidget.tvToolbarTitle);
         StoreVM storeVM = new ViewModelProvider(this).get(StoreVM.class);
         this.getLifecycle().addObserver(storeVM);
-        storeAdapter = new StoreAdapter(this, skuProductsAndPurchasesList, billingManager);
+        storeAdapter =
+                new StoreAdapter(
+                        billingManager,
+                        purchaseFunnelTracer,
+                        viewHolderPool,
+                        storeVM.getListDiffExecutor());
+        // Keeps the product item views in the pool of the list, for the next time it is shown.
+        ((LinearLayoutManager) storeBinding.rvStore.getLayoutManager())
+                .setRecycleChildrenOnDetach(true);
+        viewHolderPool.attachRecycledViewPool(storeBinding.rvStore, R.layout.adapter_store_item);
         storeBinding.rvStore.setAdapter(storeAdapter);
-        storeVM.getSkuProductsAndPurchasesList().observe(this, skuProductsAndPurchasesObserver);
+        storeVM.getStoreItems().observe(this, storeItemsObserver);
+    }
+
+    /**
+     * Traces the latest purchase of the given product as shown, once it is shown for the first
+     * time.
+     *
+     * @param skuID A Sku Product ID.
+     * @param purchaseToken The Purchase Token of the latest purchase of the product.
+     */
+    private void markShown(@NonNull String skuID, @NonNull String purchaseToken) {
+        if (purchaseToken.isEmpty() || purchaseToken.equals(shownPurchaseTokens.get(skuID))) {
+            return;
+        }
+        shownPurchaseTokens.put(skuID, purchaseToken);
+        purchaseFunnelTracer.mark(purchaseToken, PurchaseFunnelTracer.Stage.SHOWN);
     }
 }
@@ -15,17 +15,20 @@
  */
 package com.litekite.monetize.store;
 
-import android.content.Context;
-import android.view.LayoutInflater;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.databinding.DataBindingUtil;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.litekite.monetize.R;
+import com.litekite.monetize.base.ViewHolderPool;
 import com.litekite.monetize.billing.BillingManager;
 import com.litekite.monetize.databinding.AdapterStoreItemBinding;
-import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
-import java.util.List;
+import com.litekite.monetize.metrics.PurchaseFunnelTracer;
+import com.litekite.monetize.util.StableIds;
+import java.util.concurrent.Executor;
 
 /**
  * StoreAdapter, a RecyclerViewAdapter which provides product item and each product item has its own
@@ -34,73 +37,106 @@ import java.util.List;
  * products, "Purchased" will be shown to indicate that it was already purchased, otherwise the buy
  * button will be there to make purchase.
  *
+ * <p>List updates are diffed on a background executor and only the changed products are bound
+ * again. Item IDs are stable and keyed by the SKU ID.
+ *
+ * <p>Product item views come from {@link ViewHolderPool}, which may have pre-inflated them.
+ *
  * @author Vignesh S
  * @version 1.0, 10/03/2018
  * @since 1.0
  */
-public class StoreAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+public class StoreAdapter extends ListAdapter<StoreItem, RecyclerView.ViewHolder> {
+
+    private static final DiffUtil.ItemCallback<StoreItem> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<StoreItem>() {
+                @Override
+                public boolean areItemsTheSame(
+                        @NonNull StoreItem oldItem, @NonNull StoreItem newItem) {
+                    return oldItem.skuID.equals(newItem.skuID);
+                }
+
+                @Override
+                public boolean areContentsTheSame(
+                        @NonNull StoreItem oldItem, @NonNull StoreItem newItem) {
+                    return oldItem.equals(newItem);
+                }
+            };
 
-    private final Context context;
-    private final List<BillingSkuRelatedPurchases> skuProductsAndPurchasesList;
     private final BillingManager billingManager;
+    private final PurchaseFunnelTracer purchaseFunnelTracer;
+    private final ViewHolderPool viewHolderPool;
+    private final StableIds stableIds = new StableIds();
 
     /**
      * Initializes attributes.
      *
-     * @param context An Activity Context.
-     * @param skuProductsAndPurchasesList Has Sku Products and its related purchases.
      * @param billingManager Provides access to BillingClient which perform Product Purchases from
      *     Google Play Billing Library.
+     * @param purchaseFunnelTracer Traces the purchases made by the user from their tap.
+     * @param viewHolderPool Provides pre-inflated product item views.
+     * @param diffExecutor An executor in which the list differences are computed.
      */
     public StoreAdapter(
-            @NonNull Context context,
-            @NonNull List<BillingSkuRelatedPurchases> skuProductsAndPurchasesList,
-            @NonNull BillingManager billingManager) {
-        this.context = context;
-        this.skuProductsAndPurchasesList = skuProductsAndPurchasesList;
+            @NonNull BillingManager billingManager,
+            @NonNull PurchaseFunnelTracer purchaseFunnelTracer,
+            @NonNull ViewHolderPool viewHolderPool,
+            @NonNull Executor diffExecutor) {
+        super(
+                new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                        .setBackgroundThreadExecutor(diffExecutor)
+                        .build());
         this.billingManager = billingManager;
+        this.purchaseFunnelTracer = purchaseFunnelTracer;
+        this.viewHolderPool = viewHolderPool;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return R.layout.adapter_store_item;
     }
 
     @NonNull
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         AdapterStoreItemBinding adapterStoreItemBinding =
-                DataBindingUtil.inflate(
-                        LayoutInflater.from(parent.getContext()),
-                        R.layout.adapter_store_item,
-                        parent,
-                        false);
-        return new ViewHolderStoreProduct(adapterStoreItemBinding);
+                DataBindingUtil.bind(
+                        viewHolderPool.obtainView(parent, R.layout.adapter_store_item));
+        StoreItemVM storeItemVM = new StoreItemVM(billingManager, purchaseFunnelTracer);
+        adapterStoreItemBinding.setPresenter(storeItemVM);
+        return new ViewHolderStoreProduct(adapterStoreItemBinding, storeItemVM);
     }
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
         ViewHolderStoreProduct viewHolderStoreProduct = (ViewHolderStoreProduct) holder;
-        BillingSkuRelatedPurchases productRelatedPurchases =
-                skuProductsAndPurchasesList.get(position);
-        viewHolderStoreProduct.adapterStoreItemBinding.setPresenter(
-                new StoreItemVM(context, billingManager, productRelatedPurchases));
+        viewHolderStoreProduct.storeItemVM.bind(getItem(position));
         viewHolderStoreProduct.adapterStoreItemBinding.executePendingBindings();
     }
 
     @Override
-    public int getItemCount() {
-        return skuProductsAndPurchasesList.size();
+    public long getItemId(int position) {
+        return stableIds.getId(getItem(position).skuID);
     }
 
     /** ViewHolderStoreProduct, which provides product view item. */
     static class ViewHolderStoreProduct extends RecyclerView.ViewHolder {
 
-        AdapterStoreItemBinding adapterStoreItemBinding;
+        final AdapterStoreItemBinding adapterStoreItemBinding;
+        final StoreItemVM storeItemVM;
 
         /**
          * Gives product view item and its bindings.
          *
          * @param adapterStoreItemBinding Has bindings for the product view item.
+         * @param storeItemVM A presenter which is rebound for every product of this view item.
          */
-        ViewHolderStoreProduct(AdapterStoreItemBinding adapterStoreItemBinding) {
+        ViewHolderStoreProduct(
+                AdapterStoreItemBinding adapterStoreItemBinding, StoreItemVM storeItemVM) {
             super(adapterStoreItemBinding.getRoot());
             this.adapterStoreItemBinding = adapterStoreItemBinding;
+            this.storeItemVM = storeItemVM;
         }
     }
 }
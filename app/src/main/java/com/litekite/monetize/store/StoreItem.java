@@ -0,0 +1,215 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.store;
+
+import android.content.res.Resources;
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.android.billingclient.api.SkuDetails;
+import com.litekite.monetize.R;
+import com.litekite.monetize.billing.BillingConstants;
+import com.litekite.monetize.room.entity.BillingPurchaseDetails;
+import com.litekite.monetize.room.entity.BillingSkuDetails;
+import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
+import com.litekite.monetize.util.DateTimeUtil;
+import com.litekite.monetize.util.FormatService;
+import java.util.List;
+import java.util.Objects;
+import org.json.JSONException;
+
+/**
+ * StoreItem, an immutable and fully resolved Store Product Item, has product name, price, icon and
+ * its purchase state. It is built off the main thread, so that binding it only assigns values, and
+ * its Sku Details are parsed there already, so that tapping it launches the purchase flow without
+ * parsing them.
+ *
+ * <p>A purchase that expires keeps its expiry time rather than whether it has expired, which is
+ * checked when the item is bound, see {@link #isAlreadyPurchased()}. So an item that is kept in
+ * memory shows its purchase expired, even if the local database does not change.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public final class StoreItem {
+
+    @NonNull public final String skuID;
+    @NonNull public final String name;
+    @NonNull public final String price;
+    @DrawableRes public final int iconResId;
+    // The time until which the product is purchased, 0 if it can be bought.
+    public final long purchasedUntilInMillis;
+    // The Sku Details that the product is purchased with, null if they could not be parsed.
+    @Nullable public final SkuDetails skuDetails;
+    // The purchase token of the latest purchase of the product, empty if it was not purchased yet.
+    @NonNull public final String lastPurchaseToken;
+
+    private StoreItem(
+            @NonNull String skuID,
+            @NonNull String name,
+            @NonNull String price,
+            @DrawableRes int iconResId,
+            long purchasedUntilInMillis,
+            @Nullable SkuDetails skuDetails,
+            @NonNull String lastPurchaseToken) {
+        this.skuID = skuID;
+        this.name = name;
+        this.price = price;
+        this.iconResId = iconResId;
+        this.purchasedUntilInMillis = purchasedUntilInMillis;
+        this.skuDetails = skuDetails;
+        this.lastPurchaseToken = lastPurchaseToken;
+    }
+
+    /**
+     * Resolves a Store Product Item from the Sku Details and its related Purchases.
+     *
+     * @param resources Resources in which the product names are resolved.
+     * @param formatService Formats the product price.
+     * @param productRelatedPurchases contains Products with its Sku Details and its related
+     *     Purchases.
+     * @return a Store Product Item.
+     */
+    @NonNull
+    public static StoreItem from(
+            @NonNull Resources resources,
+            @NonNull FormatService formatService,
+            @NonNull BillingSkuRelatedPurchases productRelatedPurchases) {
+        final BillingSkuDetails skuDetails = productRelatedPurchases.billingSkuDetails;
+        final String skuID = skuDetails.skuID;
+        final String price = getPrice(formatService, skuDetails);
+        final SkuDetails purchasableSkuDetails = parseSkuDetails(skuDetails);
+        final String lastPurchaseToken = productRelatedPurchases.getLastPurchaseToken();
+        if (skuID.equals(BillingConstants.SKU_BUY_APPLE)) {
+            // This is Apple. For apple, it can be bought multiple times.
+            return new StoreItem(
+                    skuID,
+                    resources.getString(R.string.one_apple),
+                    price,
+                    R.drawable.ic_apple,
+                    0,
+                    purchasableSkuDetails,
+                    lastPurchaseToken);
+        }
+        // This is Popcorn.
+        return new StoreItem(
+                skuID,
+                resources.getString(R.string.unlimited_popcorn),
+                price,
+                R.drawable.ic_popcorn,
+                getPopcornPurchasedUntil(productRelatedPurchases.billingPurchaseDetails),
+                purchasableSkuDetails,
+                lastPurchaseToken);
+    }
+
+    /**
+     * Parses the Sku Details of the product that it is purchased with.
+     *
+     * @return the Sku Details, null if they could not be parsed.
+     */
+    @Nullable
+    private static SkuDetails parseSkuDetails(@NonNull BillingSkuDetails skuDetails) {
+        try {
+            return new SkuDetails(skuDetails.originalJson);
+        } catch (JSONException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Formats the price of the product in the locale of the device, or gives the price as it is
+     * formatted by Google Play, which is localized already, if it cannot be formatted.
+     */
+    @NonNull
+    private static String getPrice(
+            @NonNull FormatService formatService, @NonNull BillingSkuDetails skuDetails) {
+        // Sku Details stored before the price columns were known may not have a currency code.
+        if (skuDetails.priceCurrencyCode.isEmpty()) {
+            return skuDetails.skuPrice;
+        }
+        try {
+            return formatService.formatPrice(
+                    skuDetails.priceAmountMicros, skuDetails.priceCurrencyCode);
+        } catch (IllegalArgumentException e) {
+            // The currency is not known to this device.
+            return skuDetails.skuPrice;
+        }
+    }
+
+    /**
+     * Gives the expiry time of the last Popcorn Store Product Item purchase.
+     *
+     * @return the time until which Popcorn is purchased, 0 if it was not purchased yet.
+     */
+    private static long getPopcornPurchasedUntil(
+            @NonNull List<BillingPurchaseDetails> productPurchaseDetails) {
+        // Unlimited popcorn was not purchased yet.
+        if (productPurchaseDetails.size() <= 0) {
+            return 0;
+        }
+        long productPurchaseTimeInMillis =
+                productPurchaseDetails.get(productPurchaseDetails.size() - 1).purchaseTime;
+        // Test Subscriptions are valid for 5 minutes from the purchase time. For
+        // production release, add 30 days to the purchase time that gives the expiry date of
+        // subscription
+        return productPurchaseTimeInMillis + DateTimeUtil.FIVE_MINUTES_IN_MILLIS;
+    }
+
+    /**
+     * Checks whether the Store Product Item is purchased and is not expired yet, at this time.
+     *
+     * <p>"Buy" option will be available if it was not purchased or its purchase expired.
+     * "Purchased" will be shown otherwise.
+     *
+     * @return whether the product is purchased now.
+     */
+    public boolean isAlreadyPurchased() {
+        // Unlimited popcorn purchase was expired if true, and need to buy again.
+        return !DateTimeUtil.isDateTimePast(purchasedUntilInMillis);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        StoreItem that = (StoreItem) o;
+        return iconResId == that.iconResId
+                && purchasedUntilInMillis == that.purchasedUntilInMillis
+                && skuID.equals(that.skuID)
+                && name.equals(that.name)
+                && price.equals(that.price)
+                && Objects.equals(skuDetails, that.skuDetails)
+                && lastPurchaseToken.equals(that.lastPurchaseToken);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                skuID,
+                name,
+                price,
+                iconResId,
+                purchasedUntilInMillis,
+                skuDetails,
+                lastPurchaseToken);
+    }
+}
@@ -16,27 +16,27 @@
 package com.litekite.monetize.store;
 
 import android.app.Activity;
-import android.content.Context;
 import android.view.View;
 import android.widget.ImageView;
+import androidx.annotation.DrawableRes;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.databinding.BindingAdapter;
+import androidx.databinding.ObservableBoolean;
 import androidx.databinding.ObservableField;
-import com.android.billingclient.api.SkuDetails;
+import androidx.databinding.ObservableInt;
 import com.litekite.monetize.R;
-import com.litekite.monetize.billing.BillingConstants;
 import com.litekite.monetize.billing.BillingManager;
-import com.litekite.monetize.room.entity.BillingPurchaseDetails;
-import com.litekite.monetize.room.entity.BillingSkuDetails;
-import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
-import com.litekite.monetize.util.DateTimeUtil;
-import java.util.List;
-import org.json.JSONException;
+import com.litekite.monetize.metrics.PurchaseFunnelTracer;
+import com.litekite.monetize.util.ContextUtil;
 
 /**
  * StoreItemVM, a Presenter which provides Store Product Item that has product sku details, name,
  * price and its purchase details.
  *
+ * <p>One presenter is created per ViewHolder and rebound with {@link #bind(StoreItem)}, so binding
+ * a row does not allocate.
+ *
  * <p>Handles Click Event Actions from View and performs Purchase Flow.
  *
  * @author Vignesh S
@@ -47,87 +47,43 @@ public class StoreItemVM {
 
     public final ObservableField<String> skuProductName = new ObservableField<>();
     public final ObservableField<String> skuProductPrice = new ObservableField<>();
-    public final ObservableField<Boolean> isAlreadyPurchased = new ObservableField<>();
-    private final Context context;
+    public final ObservableInt skuProductIcon = new ObservableInt();
+    public final ObservableBoolean isAlreadyPurchased = new ObservableBoolean();
     private final BillingManager billingManager;
-    private final List<BillingPurchaseDetails> productPurchaseDetails;
-    private final BillingSkuDetails skuProductDetails;
+    private final PurchaseFunnelTracer purchaseFunnelTracer;
+    @Nullable private StoreItem storeItem;
 
     /**
      * Initializes Store Product Item attributes.
      *
-     * @param context An AppCompatActivity Context.
      * @param billingManager Provides access to BillingClient which perform Product Purchases from
      *     Google Play Billing Library.
-     * @param productRelatedPurchases contains Products with its Sku Details and its related
-     *     Purchases.
+     * @param purchaseFunnelTracer Traces the purchases made by the user from their tap.
      */
     public StoreItemVM(
-            @NonNull Context context,
             @NonNull BillingManager billingManager,
-            @NonNull BillingSkuRelatedPurchases productRelatedPurchases) {
-        this.context = context;
+            @NonNull PurchaseFunnelTracer purchaseFunnelTracer) {
         this.billingManager = billingManager;
-        this.skuProductDetails = productRelatedPurchases.billingSkuDetails;
-        this.productPurchaseDetails = productRelatedPurchases.billingPurchaseDetails;
-        init();
+        this.purchaseFunnelTracer = purchaseFunnelTracer;
     }
 
     @BindingAdapter("storeItemSrcCompat")
-    public static void setStoreItemSrcCompat(
-            @NonNull ImageView iv, @NonNull String skuProductName) {
-        int drawableRes =
-                skuProductName.equals(iv.getContext().getString(R.string.one_apple))
-                        ? R.drawable.ic_apple
-                        : R.drawable.ic_popcorn;
+    public static void setStoreItemSrcCompat(@NonNull ImageView iv, @DrawableRes int drawableRes) {
         iv.setImageResource(drawableRes);
     }
 
     /**
-     * Initializes Store Product Item and sets its respective values and tells the updates to the
-     * view.
-     */
-    private void init() {
-        skuProductPrice.set(skuProductDetails.skuPrice);
-        if (skuProductDetails.skuID.equals(BillingConstants.SKU_BUY_APPLE)) {
-            // This is Apple.
-            skuProductName.set(context.getString(R.string.one_apple));
-            // For apple, it can be bought multiple times.
-            isAlreadyPurchased.set(Boolean.FALSE);
-        } else {
-            // This is Popcorn.
-            skuProductName.set(context.getString(R.string.unlimited_popcorn));
-            checkPopcornPurchaseStatus();
-        }
-    }
-
-    /**
-     * Checks whether the Popcorn Store Product Item was purchased or not and it tells the updates
-     * to the view.
+     * Resets this presenter to the given Store Product Item and tells the updates to the view. The
+     * values are resolved off the main thread already, see {@link StoreItem#from}.
      *
-     * <p>"Buy" option will be available if it was not purchased. "Purchased" will be shown
-     * otherwise.
+     * @param storeItem A resolved Store Product Item.
      */
-    private void checkPopcornPurchaseStatus() {
-        // Unlimited popcorn was not purchased yet.
-        if (productPurchaseDetails.size() <= 0) {
-            isAlreadyPurchased.set(Boolean.FALSE);
-            return;
-        }
-        long productPurchaseTimeInMillis =
-                productPurchaseDetails.get(productPurchaseDetails.size() - 1).purchaseTime;
-        // Test Subscriptions are valid for 5 minutes from the purchase time. For
-        // production release, add 30 days to the purchase time that gives the expiry date of
-        // subscription
-        productPurchaseTimeInMillis =
-                productPurchaseTimeInMillis + DateTimeUtil.FIVE_MINUTES_IN_MILLIS;
-        // Unlimited popcorn purchase was expired if true, and need to buy again.
-        if (DateTimeUtil.isDateTimePast(productPurchaseTimeInMillis)) {
-            isAlreadyPurchased.set(Boolean.FALSE);
-            return;
-        }
-        // Popcorn was already purchased, no need to buy again.
-        isAlreadyPurchased.set(Boolean.TRUE);
+    public void bind(@NonNull StoreItem storeItem) {
+        this.storeItem = storeItem;
+        skuProductName.set(storeItem.name);
+        skuProductPrice.set(storeItem.price);
+        skuProductIcon.set(storeItem.iconResId);
+        isAlreadyPurchased.set(storeItem.isAlreadyPurchased());
     }
 
     /**
@@ -137,17 +93,20 @@ public class StoreItemVM {
      */
     public void onClick(@NonNull View v) {
         if (v.getId() == R.id.btn_product_buy) {
-            initPurchaseFlow();
+            initPurchaseFlow(ContextUtil.getActivity(v.getContext()));
         }
     }
 
-    /** Performs Purchase Flow through BillingClient of Google Play Billing Library. */
-    private void initPurchaseFlow() {
-        try {
-            SkuDetails skuDetails = new SkuDetails(skuProductDetails.originalJson);
-            billingManager.initiatePurchaseFlow((Activity) context, skuDetails);
-        } catch (JSONException e) {
-            e.printStackTrace();
+    /**
+     * Performs Purchase Flow through BillingClient of Google Play Billing Library.
+     *
+     * @param activity An activity reference from which the billing flow will be launched.
+     */
+    private void initPurchaseFlow(@Nullable Activity activity) {
+        if (activity == null || storeItem == null || storeItem.skuDetails == null) {
+            return;
         }
+        purchaseFunnelTracer.begin(storeItem.skuID);
+        billingManager.initiatePurchaseFlow(activity, storeItem.skuDetails);
     }
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.text.DateFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Currency;
+import java.util.Date;
+import java.util.Locale;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * A thread-safe formatting service that gives Formatted Date and Time and Prices.
+ *
+ * <p>Formatters are created once per thread and locale. Recently formatted values are kept in a
+ * small LRU, so formatting a value again does not allocate. Both are invalidated when the default
+ * locale changes.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@Singleton
+public class FormatService {
+
+    private static final String DATE_TIME_PATTERN = "dd-MM-yyyy, hh:mm a";
+    private static final int CACHE_CAPACITY = 16;
+    private static final long MICROS_IN_UNIT = 1_000_000L;
+
+    private final ThreadLocal<Formatters> formatters = new ThreadLocal<>();
+    private final LruCache dateTimeCache = new LruCache(CACHE_CAPACITY);
+    private final LruCache priceCache = new LruCache(CACHE_CAPACITY);
+    @Nullable private Locale cacheLocale;
+
+    @Inject
+    public FormatService() {}
+
+    /**
+     * Gets Date in Millis and returns a Formatted Date String.
+     *
+     * @param dateInMillis Date is represented as Millis.
+     * @return formatted Date of the given Date in Millis.
+     */
+    @NonNull
+    public String formatDateTime(long dateInMillis) {
+        final Locale locale = Locale.getDefault();
+        String dateTime = getCached(dateTimeCache, locale, dateInMillis, null);
+        if (dateTime == null) {
+            final Formatters formatters = getFormatters(locale);
+            formatters.date.setTime(dateInMillis);
+            dateTime = formatters.dateFormat.format(formatters.date);
+            putCached(dateTimeCache, locale, dateInMillis, null, dateTime);
+        }
+        return dateTime;
+    }
+
+    /**
+     * Gets a Price in micro-units and returns a Formatted Price String in the given currency.
+     *
+     * @param priceAmountMicros Price is represented in micro-units, 1,000,000 micro-units equal one
+     *     unit of the currency.
+     * @param currencyCode ISO 4217 currency code of the Price.
+     * @return formatted Price of the given Price in micro-units.
+     * @throws IllegalArgumentException if the currency code is not a supported ISO 4217 code.
+     */
+    @NonNull
+    public String formatPrice(long priceAmountMicros, @NonNull String currencyCode) {
+        final Locale locale = Locale.getDefault();
+        String price = getCached(priceCache, locale, priceAmountMicros, currencyCode);
+        if (price == null) {
+            final NumberFormat currencyFormat = getFormatters(locale).currencyFormat;
+            currencyFormat.setCurrency(Currency.getInstance(currencyCode));
+            price = currencyFormat.format((double) priceAmountMicros / MICROS_IN_UNIT);
+            putCached(priceCache, locale, priceAmountMicros, currencyCode, price);
+        }
+        return price;
+    }
+
+    @Nullable
+    private synchronized String getCached(
+            @NonNull LruCache cache, @NonNull Locale locale, long key, @Nullable String qualifier) {
+        if (!locale.equals(cacheLocale)) {
+            // Locale was changed, the formatted values are not valid anymore.
+            dateTimeCache.clear();
+            priceCache.clear();
+            cacheLocale = locale;
+            return null;
+        }
+        return cache.get(key, qualifier);
+    }
+
+    private synchronized void putCached(
+            @NonNull LruCache cache,
+            @NonNull Locale locale,
+            long key,
+            @Nullable String qualifier,
+            @NonNull String value) {
+        if (locale.equals(cacheLocale)) {
+            cache.put(key, qualifier, value);
+        }
+    }
+
+    @NonNull
+    private Formatters getFormatters(@NonNull Locale locale) {
+        Formatters threadFormatters = formatters.get();
+        if (threadFormatters == null || !threadFormatters.locale.equals(locale)) {
+            threadFormatters = new Formatters(locale);
+            formatters.set(threadFormatters);
+        }
+        return threadFormatters;
+    }
+
+    /** Formatters of a thread, which are not thread-safe and must not be shared. */
+    private static final class Formatters {
+
+        final Locale locale;
+        final DateFormat dateFormat;
+        final NumberFormat currencyFormat;
+        final Date date = new Date();
+
+        Formatters(@NonNull Locale locale) {
+            this.locale = locale;
+            this.dateFormat = new SimpleDateFormat(DATE_TIME_PATTERN, locale);
+            this.currencyFormat = NumberFormat.getCurrencyInstance(locale);
+        }
+    }
+
+    /**
+     * A fixed size, least recently used cache of formatted values, keyed by a long value and an
+     * optional qualifier. It is small enough that a linear scan is cheaper than hashing.
+     */
+    private static final class LruCache {
+
+        private final long[] keys;
+        private final String[] qualifiers;
+        private final String[] values;
+        private final long[] lastAccess;
+        private long accessCounter;
+        private int size;
+
+        LruCache(int capacity) {
+            keys = new long[capacity];
+            qualifiers = new String[capacity];
+            values = new String[capacity];
+            lastAccess = new long[capacity];
+        }
+
+        @Nullable
+        String get(long key, @Nullable String qualifier) {
+            final int index = indexOf(key, qualifier);
+            if (index < 0) {
+                return null;
+            }
+            lastAccess[index] = ++accessCounter;
+            return values[index];
+        }
+
+        void put(long key, @Nullable String qualifier, @NonNull String value) {
+            // The same value might be formatted by another thread meanwhile.
+            int index = indexOf(key, qualifier);
+            if (index < 0) {
+                index = size < keys.length ? size++ : indexOfLeastRecentlyUsed();
+            }
+            keys[index] = key;
+            qualifiers[index] = qualifier;
+            values[index] = value;
+            lastAccess[index] = ++accessCounter;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                qualifiers[i] = null;
+                values[i] = null;
+            }
+            size = 0;
+        }
+
+        private int indexOfLeastRecentlyUsed() {
+            int index = 0;
+            for (int i = 1; i < size; i++) {
+                if (lastAccess[i] < lastAccess[index]) {
+                    index = i;
+                }
+            }
+            return index;
+        }
+
+        private int indexOf(long key, @Nullable String qualifier) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key && equals(qualifiers[i], qualifier)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean equals(@Nullable String a, @Nullable String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.util;
+
+import androidx.annotation.NonNull;
+import androidx.arch.core.util.Function;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utils class for {@link LiveData}.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public class LiveDataUtil {
+
+    private LiveDataUtil() {}
+
+    /**
+     * Like {@link androidx.lifecycle.Transformations#map(LiveData, Function)}, but applies the
+     * mapping function on the given executor instead of the main thread. When the source emits
+     * again before a previous mapping finished, the stale result is dropped.
+     *
+     * @param source The LiveData to be mapped.
+     * @param executor An executor in which the mapping function runs.
+     * @param mapFunction A function that maps a source value into the result value.
+     * @return a LiveData of the mapped values.
+     */
+    @NonNull
+    public static <X, Y> LiveData<Y> mapAsync(
+            @NonNull LiveData<X> source,
+            @NonNull Executor executor,
+            @NonNull Function<X, Y> mapFunction) {
+        final MediatorLiveData<Y> result = new MediatorLiveData<>();
+        final AtomicInteger latestVersion = new AtomicInteger();
+        result.addSource(
+                source,
+                x -> {
+                    final int version = latestVersion.incrementAndGet();
+                    executor.execute(
+                            () -> {
+                                final Y y = mapFunction.apply(x);
+                                if (version == latestVersion.get()) {
+                                    result.postValue(y);
+                                }
+                            });
+                });
+        return result;
+    }
+}
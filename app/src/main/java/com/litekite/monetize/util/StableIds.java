@@ -0,0 +1,52 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.util;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * StableIds, gives a list adapter a stable item id for each key of its items, such as a SKU ID, in
+ * the order the keys are first seen.
+ *
+ * <p>The id of a key is kept for the lifetime of this instance, so that an item keeps its id when
+ * it leaves the list and comes back. It holds an entry for every distinct key it was given, so the
+ * keys must be from a small and fixed set, e.g. the SKU IDs of the catalog, which bounds it.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public final class StableIds {
+
+    private final Map<String, Long> ids = new HashMap<>();
+
+    /**
+     * @param key A key of a list item, e.g. its SKU ID.
+     * @return the stable id of the given key.
+     */
+    @MainThread
+    public long getId(@NonNull String key) {
+        Long id = ids.get(key);
+        if (id == null) {
+            id = (long) ids.size();
+            ids.put(key, id);
+        }
+        return id;
+    }
+}
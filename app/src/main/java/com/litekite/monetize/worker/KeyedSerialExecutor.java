@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.worker;
+
+import androidx.annotation.NonNull;
+import com.litekite.monetize.app.MonetizeApp;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * KeyedSerialExecutor, runs work with the same key one after another in the order it was submitted,
+ * and work with different keys in parallel, on a {@link WorkExecutor}. It neither locks nor keeps a
+ * thread per key: the work of a key is queued, and only the submission that finds the queue empty
+ * starts draining it, one work per run on the {@link WorkExecutor}. The work never runs on the
+ * thread that submits it, even in a lane with the {@link WorkExecutor.RejectionPolicy#CALLER_RUNS}
+ * policy, so draining a queue does not recurse.
+ *
+ * <p>A queue is kept for every key that was used, so keys should be from a small set, e.g. a SKU ID
+ * or a table name. Each queue holds up to the given capacity of work, including the work that is
+ * running, and the work that does not fit in is rejected.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public class KeyedSerialExecutor {
+
+    private static final String TAG = KeyedSerialExecutor.class.getName();
+
+    private static final int DEFAULT_CAPACITY_PER_KEY = 64;
+
+    private final WorkExecutor workExecutor;
+    private final int capacityPerKey;
+    private final Map<String, SerialQueue> serialQueues = new ConcurrentHashMap<>();
+
+    /**
+     * @param workExecutor Runs the work. A work that it rejects is dropped, and the work queued
+     *     after it with the same key still runs.
+     */
+    public KeyedSerialExecutor(@NonNull WorkExecutor workExecutor) {
+        this(workExecutor, DEFAULT_CAPACITY_PER_KEY);
+    }
+
+    /**
+     * @param workExecutor Runs the work.
+     * @param capacityPerKey The number of work that the queue of a key holds.
+     */
+    public KeyedSerialExecutor(@NonNull WorkExecutor workExecutor, int capacityPerKey) {
+        this.workExecutor = workExecutor;
+        this.capacityPerKey = capacityPerKey;
+    }
+
+    /**
+     * Runs the given work after the work submitted before with the same key.
+     *
+     * @param key The key that the work is ordered by, e.g. a table name.
+     * @param lane The lane to queue the work in.
+     * @param tag The call site that submits the work.
+     * @param command The work to run.
+     * @throws RejectedExecutionException if the queue of the key is full.
+     */
+    public void execute(
+            @NonNull String key,
+            @NonNull WorkExecutor.Lane lane,
+            @NonNull String tag,
+            @NonNull Runnable command) {
+        SerialQueue serialQueue = serialQueues.get(key);
+        if (serialQueue == null) {
+            serialQueues.putIfAbsent(key, new SerialQueue());
+            serialQueue = serialQueues.get(key);
+        }
+        if (!serialQueue.permits.tryAcquire()) {
+            MonetizeApp.printLog(TAG, "The queue is full, dropping: " + tag + " in " + key);
+            workExecutor.recordRejected(tag);
+            throw new RejectedExecutionException("The queue is full: " + key);
+        }
+        serialQueue.enqueue(new SerialTask(lane, tag, command));
+    }
+
+    /** A work queued by its key, with the lane and the tag to run it with. */
+    private static final class SerialTask {
+
+        final WorkExecutor.Lane lane;
+        final String tag;
+        final Runnable command;
+
+        SerialTask(
+                @NonNull WorkExecutor.Lane lane, @NonNull String tag, @NonNull Runnable command) {
+            this.lane = lane;
+            this.tag = tag;
+            this.command = command;
+        }
+    }
+
+    /**
+     * The queued work of a key. The count of the queued work decides which submission starts
+     * draining the queue, and whether the work that is run last continues draining it. A queued
+     * work holds a permit of the queue until it is run or dropped.
+     */
+    private final class SerialQueue {
+
+        final Semaphore permits = new Semaphore(capacityPerKey);
+        final Queue<SerialTask> tasks = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pendingCount = new AtomicInteger();
+        final Runnable runNext = this::runNext;
+
+        void enqueue(@NonNull SerialTask task) {
+            tasks.offer(task);
+            if (pendingCount.getAndIncrement() == 0) {
+                scheduleNext();
+            }
+        }
+
+        /**
+         * Submits the work at the head of the queue. A work that is rejected is dropped, and the
+         * next one is submitted instead, so that the queue is not stuck.
+         */
+        void scheduleNext() {
+            do {
+                final SerialTask next = tasks.peek();
+                try {
+                    workExecutor.executeInPool(next.lane, next.tag, runNext);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    tasks.poll();
+                    permits.release();
+                    MonetizeApp.printLog(TAG, "dropping: " + next.tag + ", " + e.getMessage());
+                }
+            } while (pendingCount.decrementAndGet() > 0);
+        }
+
+        /** Runs the work at the head of the queue, and submits the next one if there is any. */
+        void runNext() {
+            final SerialTask task = tasks.poll();
+            permits.release();
+            try {
+                task.command.run();
+            } finally {
+                if (pendingCount.decrementAndGet() > 0) {
+                    scheduleNext();
+                }
+            }
+        }
+    }
+}
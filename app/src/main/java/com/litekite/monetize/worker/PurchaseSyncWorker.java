@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.worker;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.litekite.monetize.app.MonetizeApp;
+import com.litekite.monetize.billing.BillingManager;
+import dagger.hilt.EntryPoint;
+import dagger.hilt.InstallIn;
+import dagger.hilt.android.EntryPointAccessors;
+import dagger.hilt.components.SingletonComponent;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * PurchaseSyncWorker, periodically syncs the purchase history newer than the stored watermark into
+ * the local database in background, while the device is charging and on an unmetered network. So
+ * the purchases made on the other devices are already stored when the app comes to foreground.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @see <a href="https://developer.android.com/topic/libraries/architecture/workmanager">WorkManager
+ *     Guide</a>
+ * @since 1.0
+ */
+public class PurchaseSyncWorker extends Worker {
+
+    private static final String TAG = PurchaseSyncWorker.class.getName();
+    private static final String UNIQUE_WORK_NAME = "purchase_sync";
+    private static final long SYNC_INTERVAL_IN_HOURS = 12;
+    // The sync is retried later if it is not finished by then.
+    private static final long SYNC_TIMEOUT_IN_SECONDS = 60;
+
+    public PurchaseSyncWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    /**
+     * Schedules the periodic purchase history sync, if it is not scheduled already.
+     *
+     * @param context An Application Context.
+     */
+    public static void schedule(@NonNull Context context) {
+        final Constraints constraints =
+                new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.UNMETERED)
+                        .setRequiresCharging(true)
+                        .build();
+        final PeriodicWorkRequest workRequest =
+                new PeriodicWorkRequest.Builder(
+                                PurchaseSyncWorker.class, SYNC_INTERVAL_IN_HOURS, TimeUnit.HOURS)
+                        .setConstraints(constraints)
+                        .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(
+                        UNIQUE_WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, workRequest);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        final BillingManager billingManager =
+                EntryPointAccessors.fromApplication(
+                                getApplicationContext(), PurchaseSyncEntryPoint.class)
+                        .getBillingManager();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicBoolean isSuccessful = new AtomicBoolean();
+        billingManager.syncPurchaseHistory(
+                0,
+                synced -> {
+                    isSuccessful.set(synced);
+                    latch.countDown();
+                });
+        try {
+            if (!latch.await(SYNC_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS)) {
+                MonetizeApp.printLog(TAG, "doWork: sync timed out");
+                return Result.retry();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+        MonetizeApp.printLog(TAG, "doWork: synced: " + isSuccessful.get());
+        return isSuccessful.get() ? Result.success() : Result.retry();
+    }
+
+    /** Provides the dependencies of the worker, which is not created by Hilt. */
+    @EntryPoint
+    @InstallIn(SingletonComponent.class)
+    interface PurchaseSyncEntryPoint {
+
+        BillingManager getBillingManager();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.worker;
+
+import androidx.annotation.NonNull;
+import com.litekite.monetize.app.MonetizeApp;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * TaskGroup, runs work on a {@link WorkExecutor} in the scope of an owner such as a ViewModel, and
+ * cancels all of its queued and running work at once when the owner is gone, see {@link
+ * #cancelAll()}. Work that is submitted after that is not run at all.
+ *
+ * <p>It keeps a handle of the work only until the work is done, so a group of a long living owner
+ * does not grow.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public class TaskGroup {
+
+    private static final String TAG = TaskGroup.class.getName();
+
+    /** A handle of the work that was dropped, as the group was already cancelled. */
+    private static final TaskHandle CANCELLED =
+            new TaskHandle() {
+                @Override
+                public boolean cancel() {
+                    return false;
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return true;
+                }
+
+                @Override
+                public boolean isDone() {
+                    return true;
+                }
+            };
+
+    private final WorkExecutor workExecutor;
+    private final Set<TaskHandle> tasks = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private volatile boolean isCancelled;
+
+    /** @param workExecutor Runs the work of this group. */
+    public TaskGroup(@NonNull WorkExecutor workExecutor) {
+        this.workExecutor = workExecutor;
+    }
+
+    /**
+     * Runs the given work in the given lane, as a work of this group.
+     *
+     * @param lane The lane to queue the work in.
+     * @param tag The call site that submits the work.
+     * @param command The work to run.
+     * @return a handle that cancels the work, which is already cancelled if this group is.
+     */
+    @NonNull
+    public TaskHandle execute(
+            @NonNull WorkExecutor.Lane lane, @NonNull String tag, @NonNull Runnable command) {
+        if (isCancelled) {
+            MonetizeApp.printLog(TAG, "execute: the group is cancelled, dropping: " + tag);
+            workExecutor.recordCancelled(tag);
+            return CANCELLED;
+        }
+        final TaskHandle task = workExecutor.executeCancellable(lane, tag, command, this);
+        if (isCancelled) {
+            // The group was cancelled while the work was being submitted.
+            task.cancel();
+        }
+        return task;
+    }
+
+    /**
+     * Gives an Executor that runs its work in the given lane as a work of this group, tagged with
+     * the given call site, for a library that takes an Executor.
+     *
+     * @param lane The lane to queue the work in.
+     * @param tag The call site that submits the work, e.g. "StoreVM.listDiff".
+     * @return an Executor of this group.
+     */
+    @NonNull
+    public Executor asExecutor(@NonNull WorkExecutor.Lane lane, @NonNull String tag) {
+        return command -> execute(lane, tag, command);
+    }
+
+    /**
+     * Cancels the queued and running work of this group, and the work submitted to it from now on.
+     * Meant to be called when the owner is gone, e.g. from {@code ViewModel#onCleared()}.
+     */
+    public void cancelAll() {
+        isCancelled = true;
+        int cancelledCount = 0;
+        for (TaskHandle task : tasks) {
+            if (task.cancel()) {
+                cancelledCount++;
+            }
+        }
+        MonetizeApp.printLog(TAG, "cancelAll: cancelled " + cancelledCount + " work");
+    }
+
+    /** @return the number of work of this group that is queued or running. */
+    public int getPendingCount() {
+        return tasks.size();
+    }
+
+    /** @return whether this group is cancelled. */
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    void add(@NonNull TaskHandle task) {
+        tasks.add(task);
+    }
+
+    void remove(@NonNull TaskHandle task) {
+        tasks.remove(task);
+    }
+}
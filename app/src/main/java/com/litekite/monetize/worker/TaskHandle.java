@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.worker;
+
+/**
+ * TaskHandle, a handle of a work submitted to {@link WorkExecutor}, which cancels the work if it is
+ * still queued, or interrupts it if it is running.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public interface TaskHandle {
+
+    /**
+     * Cancels the work. A queued work is removed from its lane and never runs. A running work is
+     * interrupted, and it stops early only if it checks {@link Thread#isInterrupted()} or {@link
+     * #isCancelled()}.
+     *
+     * @return true if the work was cancelled, false if it had already finished or was cancelled.
+     */
+    boolean cancel();
+
+    /** @return whether the work was cancelled before it finished. */
+    boolean isCancelled();
+
+    /** @return whether the work has finished, or was cancelled. */
+    boolean isDone();
+}
@@ -15,57 +15,426 @@
  */
 package com.litekite.monetize.worker;
 
+import android.os.Looper;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import com.litekite.monetize.app.MonetizeApp;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import javax.inject.Inject;
-import javax.inject.Singleton;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * An Executor that uses {@link ThreadPoolExecutor} with the available thread pool size and runs
- * work in background.
+ * An Executor that uses {@link ThreadPoolExecutor} with the given thread pool size and runs work in
+ * background. The app has one for CPU-bound work and one for blocking I/O, qualified by {@link
+ * com.litekite.monetize.di.CpuExecutor} and {@link com.litekite.monetize.di.IoExecutor}.
+ *
+ * <p>Work is queued in one of the {@link Lane}s, and the queued work of a higher priority lane is
+ * always started before the one of a lower priority lane, in the order it was queued within a lane.
+ * Each lane holds up to its capacity of queued work, and the {@link RejectionPolicy} of the lane
+ * decides what happens to the work that does not fit in. Work submitted from the main thread or
+ * from a thread of a WorkExecutor never blocks or runs on its caller, since the main thread must
+ * not access the database and a pool thread that waits for its own pool may never be woken up. It
+ * is queued beyond the capacity of its lane instead, unless the lane rejects it, up to the overflow
+ * capacity of the lane. The work that does not fit in the overflow either is rejected.
+ *
+ * <p>Every work is tagged with the call site that submitted it, and its wait in the queue and its
+ * run are recorded into {@link WorkExecutorMetrics}, along with the work that was queued beyond its
+ * lane or rejected. A work that waits or runs longer than the slow task threshold is logged. A
+ * library that takes an {@link Executor}, e.g. Room, is given one of {@link #asExecutor(Lane,
+ * String)}, so that its work is tagged too.
+ *
+ * <p>Work that is only useful to a screen is submitted with {@link #executeCancellable(Lane,
+ * String, Runnable)}, or through a {@link TaskGroup}, so that it can be cancelled once the screen
+ * is left. Cancelled work is counted in the metrics too.
  *
  * @author Vignesh S
  * @version 1.0, 26/02/2021
  * @since 1.0
  */
-@Singleton
-public class WorkExecutor implements Executor {
+public class WorkExecutor {
 
     private static final String TAG = WorkExecutor.class.getName();
 
+    private static final long DEFAULT_SLOW_TASK_THRESHOLD_IN_MILLIS = 200;
+
     // A thread pool executor instance
     private final ThreadPoolExecutor pool;
+    // Shuts the pool down when the jvm exits, unless it was shut down before.
+    private final Thread shutdownHook;
+    // Configuration of each lane, and the permits of the queued work that fits in the lane.
+    private final Map<Lane, LaneConfig> laneConfigs;
+    private final Map<Lane, Semaphore> lanePermits = new EnumMap<>(Lane.class);
+    // The permits of the work queued beyond the capacity of each lane.
+    private final Map<Lane, Semaphore> overflowPermits = new EnumMap<>(Lane.class);
+    // Keeps the order of the queued work within a lane.
+    private final AtomicLong sequence = new AtomicLong();
+    private final WorkExecutorMetrics metrics = new WorkExecutorMetrics();
+    private volatile long slowTaskThresholdInNanos =
+            TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_TASK_THRESHOLD_IN_MILLIS);
+    // Takes the periodic snapshots of the metrics, created when they are scheduled.
+    private ScheduledExecutorService snapshotScheduler;
 
     /**
      * Creates a new instance of {@link WorkExecutor} and it creates a new {@link
-     * ThreadPoolExecutor}
+     * ThreadPoolExecutor} with a thread per available core and the default lane configuration.
      */
-    @Inject
     public WorkExecutor() {
         // Gets the number of available cores (not always the same as the maximum number of cores)
-        final int NUMBER_OF_CORES = Runtime.getRuntime().availableProcessors();
+        this(Runtime.getRuntime().availableProcessors(), getDefaultLaneConfigs());
+    }
+
+    /**
+     * Creates a new instance of {@link WorkExecutor} and it creates a new {@link
+     * ThreadPoolExecutor}
+     *
+     * @param poolSize The number of threads that run work.
+     * @param laneConfigs The capacity and the rejection policy of every lane.
+     */
+    public WorkExecutor(int poolSize, @NonNull Map<Lane, LaneConfig> laneConfigs) {
+        this.laneConfigs = new EnumMap<>(laneConfigs);
+        for (Lane lane : Lane.values()) {
+            final LaneConfig laneConfig = this.laneConfigs.get(lane);
+            if (laneConfig == null) {
+                throw new IllegalArgumentException("No configuration for the lane: " + lane);
+            }
+            lanePermits.put(lane, new Semaphore(laneConfig.capacity));
+            overflowPermits.put(lane, new Semaphore(laneConfig.overflowCapacity));
+        }
         // Sets the Time Unit to seconds
         final int KEEP_ALIVE_TIME = 1;
         final TimeUnit KEEP_ALIVE_TIME_UNIT = TimeUnit.SECONDS;
-        // Creates a thread pool executor
+        // Creates a thread pool executor, the queue orders work by its lane.
         pool =
                 new ThreadPoolExecutor(
-                        NUMBER_OF_CORES, // Initial pool size
-                        NUMBER_OF_CORES, // Max pool size
+                        poolSize, // Initial pool size
+                        poolSize, // Max pool size
                         KEEP_ALIVE_TIME,
                         KEEP_ALIVE_TIME_UNIT,
-                        new LinkedBlockingQueue<>());
+                        new PriorityBlockingQueue<>(),
+                        WorkerThread::new);
         // clears thread pool when the jvm exits or gets terminated.
-        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdownAndAwaitTermination));
+        shutdownHook = new Thread(this::shutdownAndAwaitTermination);
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * @return the default lane configuration. The user blocking and user visible work run on the
+     *     caller when their lane is full, as running it late is worse than running it on the
+     *     caller. Background work waits for room in its lane instead. Neither happens on the main
+     *     thread or on a pool thread, where the work is queued beyond the capacity of its lane, up
+     *     to as much work again.
+     */
+    @NonNull
+    public static Map<Lane, LaneConfig> getDefaultLaneConfigs() {
+        final Map<Lane, LaneConfig> laneConfigs = new EnumMap<>(Lane.class);
+        laneConfigs.put(Lane.USER_BLOCKING, new LaneConfig(64, RejectionPolicy.CALLER_RUNS));
+        laneConfigs.put(Lane.USER_VISIBLE, new LaneConfig(256, RejectionPolicy.CALLER_RUNS));
+        laneConfigs.put(Lane.BACKGROUND, new LaneConfig(1024, RejectionPolicy.BLOCK));
+        return laneConfigs;
+    }
+
+    /**
+     * Runs the given work in the given lane.
+     *
+     * @param lane The lane to queue the work in.
+     * @param tag The call site that submits the work, e.g. "BillingManager.storeSkuDetails".
+     * @param command The work to run.
+     * @throws RejectedExecutionException if the lane is full and its policy is {@link
+     *     RejectionPolicy#ABORT}, if the lane and its overflow are full, or if the executor is shut
+     *     down.
+     */
+    public void execute(@NonNull Lane lane, @NonNull String tag, @NonNull Runnable command) {
+        enqueue(lane, tag, command, true);
+    }
+
+    /**
+     * Runs the given work in the given lane.
+     *
+     * @param lane The lane to queue the work in.
+     * @param tag The call site that submits the work, e.g. "BillingRepository.parseSkuDetails".
+     * @param task The work to run.
+     * @return a Future that gives the result of the work, or the exception it has thrown.
+     * @throws RejectedExecutionException if the lane is full and its policy is {@link
+     *     RejectionPolicy#ABORT}, or if the executor is shut down.
+     */
+    @NonNull
+    public <T> Future<T> submit(
+            @NonNull Lane lane, @NonNull String tag, @NonNull Callable<T> task) {
+        final FutureTask<T> future = new FutureTask<>(task);
+        enqueue(lane, tag, future, true);
+        return future;
+    }
+
+    /**
+     * Runs the given work in the given lane, always on a thread of the pool. The work that does not
+     * fit in a lane with the {@link RejectionPolicy#CALLER_RUNS} policy is queued beyond the
+     * capacity of the lane instead, e.g. for work that submits the next work when it is run.
+     *
+     * @param lane The lane to queue the work in.
+     * @param tag The call site that submits the work.
+     * @param command The work to run.
+     * @throws RejectedExecutionException if the lane is full and its policy is {@link
+     *     RejectionPolicy#ABORT}, or if the executor is shut down.
+     */
+    void executeInPool(@NonNull Lane lane, @NonNull String tag, @NonNull Runnable command) {
+        enqueue(lane, tag, command, false);
+    }
+
+    /**
+     * Gives an Executor that runs its work in the given lane, tagged with the given call site, for
+     * a library that takes an Executor.
+     *
+     * @param lane The lane to queue the work in.
+     * @param tag The call site that submits the work, e.g. "AppDatabase.query".
+     * @return an Executor of this executor.
+     */
+    @NonNull
+    public Executor asExecutor(@NonNull Lane lane, @NonNull String tag) {
+        return command -> execute(lane, tag, command);
+    }
+
+    /**
+     * Runs the given work in the given lane, and gives a handle that cancels it.
+     *
+     * @param lane The lane to queue the work in.
+     * @param tag The call site that submits the work, e.g. "StoreVM.listDiff".
+     * @param command The work to run.
+     * @return a handle that cancels the work while it is queued or running.
+     * @throws RejectedExecutionException if the lane is full and its policy is {@link
+     *     RejectionPolicy#ABORT}, or if the executor is shut down.
+     */
+    @NonNull
+    public TaskHandle executeCancellable(
+            @NonNull Lane lane, @NonNull String tag, @NonNull Runnable command) {
+        return executeCancellable(lane, tag, command, null);
+    }
+
+    /**
+     * Runs the given work in the given lane, as a work of the given group.
+     *
+     * @param group The group that the work is added to, until it is done.
+     */
+    @NonNull
+    TaskHandle executeCancellable(
+            @NonNull Lane lane,
+            @NonNull String tag,
+            @NonNull Runnable command,
+            @Nullable TaskGroup group) {
+        final CancellableTask task = new CancellableTask(tag, command, group);
+        if (group != null) {
+            // Added before it is queued, so that it is removed once it is done, even if it runs on
+            // the caller.
+            group.add(task);
+        }
+        try {
+            task.laneTask = enqueue(lane, tag, task, true);
+        } catch (RejectedExecutionException e) {
+            if (group != null) {
+                group.remove(task);
+            }
+            throw e;
+        }
+        return task;
+    }
+
+    /**
+     * Counts a work that was cancelled before it was submitted, e.g. by a cancelled group.
+     *
+     * @param tag The call site that submitted the work.
+     */
+    void recordCancelled(@NonNull String tag) {
+        metrics.recordCancelled(tag);
+    }
+
+    /**
+     * Counts a work that was rejected before it was submitted, e.g. by a full queue of a key.
+     *
+     * @param tag The call site that submitted the work.
+     */
+    void recordRejected(@NonNull String tag) {
+        metrics.recordRejected(tag);
+    }
+
+    /**
+     * Queues the given work in the given lane, if the lane has room for it. Applies the rejection
+     * policy of the lane otherwise, or queues it beyond the capacity of the lane if the caller is
+     * the main thread or a pool thread, which must neither block nor run the work. The work is
+     * rejected if the overflow of the lane is full too.
+     *
+     * @param mayRunOnCaller Whether the work may run on the caller if the lane is full and its
+     *     policy is {@link RejectionPolicy#CALLER_RUNS}. It is queued beyond the lane otherwise.
+     * @return the queued work, or null if the work ran on the caller.
+     */
+    @Nullable
+    private LaneTask enqueue(
+            @NonNull Lane lane,
+            @NonNull String tag,
+            @NonNull Runnable command,
+            boolean mayRunOnCaller) {
+        Semaphore permits = lanePermits.get(lane);
+        if (!permits.tryAcquire()) {
+            final RejectionPolicy policy = laneConfigs.get(lane).policy;
+            if (policy == RejectionPolicy.ABORT) {
+                MonetizeApp.printLog(TAG, "The lane is full, dropping: " + tag + " in " + lane);
+                metrics.recordRejected(tag);
+                throw new RejectedExecutionException("The lane is full: " + lane);
+            } else if (Looper.myLooper() == Looper.getMainLooper()
+                    || Thread.currentThread() instanceof WorkerThread
+                    || (policy == RejectionPolicy.CALLER_RUNS && !mayRunOnCaller)) {
+                permits = overflowPermits.get(lane);
+                if (!permits.tryAcquire()) {
+                    MonetizeApp.printLog(
+                            TAG, "The lane overflow is full, dropping: " + tag + " in " + lane);
+                    metrics.recordRejected(tag);
+                    throw new RejectedExecutionException("The lane overflow is full: " + lane);
+                }
+                MonetizeApp.printLog(
+                        TAG, "The lane is full, queueing beyond it: " + tag + " in " + lane);
+                metrics.recordOverflowed(tag);
+            } else if (policy == RejectionPolicy.CALLER_RUNS) {
+                MonetizeApp.printLog(TAG, "The lane is full, running on the caller: " + lane);
+                final long startTime = System.nanoTime();
+                try {
+                    command.run();
+                } finally {
+                    recordRun(tag, 0, System.nanoTime() - startTime);
+                }
+                return null;
+            } else {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException(
+                            "Interrupted while waiting for: " + lane, e);
+                }
+            }
+        }
+        final LaneTask laneTask =
+                new LaneTask(lane, sequence.getAndIncrement(), tag, command, permits);
+        try {
+            pool.execute(laneTask);
+        } catch (RejectedExecutionException e) {
+            laneTask.releasePermit();
+            throw e;
+        }
+        return laneTask;
+    }
+
+    /**
+     * Records a run of a work, and logs it if it was slow.
+     *
+     * @param tag The call site that submitted the work.
+     * @param waitInNanos The time the work waited in the queue.
+     * @param runInNanos The time the work ran for.
+     */
+    private void recordRun(@NonNull String tag, long waitInNanos, long runInNanos) {
+        metrics.record(tag, waitInNanos, runInNanos);
+        final long threshold = slowTaskThresholdInNanos;
+        if (waitInNanos >= threshold || runInNanos >= threshold) {
+            MonetizeApp.printLog(
+                    TAG,
+                    "slow task: "
+                            + tag
+                            + ", waited "
+                            + TimeUnit.NANOSECONDS.toMillis(waitInNanos)
+                            + "ms, ran "
+                            + TimeUnit.NANOSECONDS.toMillis(runInNanos)
+                            + "ms");
+        }
+    }
+
+    /**
+     * Sets how long a work can wait in the queue or run before it is logged as a slow task.
+     *
+     * @param thresholdInMillis The slow task threshold.
+     */
+    public void setSlowTaskThreshold(long thresholdInMillis) {
+        slowTaskThresholdInNanos = TimeUnit.MILLISECONDS.toNanos(thresholdInMillis);
+    }
+
+    /** @return the number of work waiting in the queue. */
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * @param lane A lane.
+     * @return the number of work waiting in the given lane, including its overflow.
+     */
+    public int getQueueDepth(@NonNull Lane lane) {
+        final LaneConfig laneConfig = laneConfigs.get(lane);
+        return laneConfig.capacity
+                - lanePermits.get(lane).availablePermits()
+                + laneConfig.overflowCapacity
+                - overflowPermits.get(lane).availablePermits();
+    }
+
+    /** @return the number of threads that are running work. */
+    public int getActiveThreads() {
+        return pool.getActiveCount();
+    }
+
+    /** @return the number of work that ran in the thread pool. */
+    public long getCompletedCount() {
+        return pool.getCompletedTaskCount();
+    }
+
+    /** @return a snapshot of the gauges and the metrics of the work of every call site. */
+    @NonNull
+    public WorkExecutorMetrics.Snapshot getSnapshot() {
+        return metrics.snapshot(getQueueDepth(), getActiveThreads(), getCompletedCount());
+    }
+
+    /**
+     * Gives a snapshot to the given listener periodically, until the returned Future is cancelled.
+     *
+     * @param periodInMillis The time between the snapshots.
+     * @param listener Takes the snapshots, in background.
+     * @return a Future that stops the snapshots when it is cancelled.
+     */
+    @NonNull
+    public synchronized Future<?> scheduleSnapshots(
+            long periodInMillis, @NonNull SnapshotListener listener) {
+        if (snapshotScheduler == null) {
+            snapshotScheduler =
+                    Executors.newSingleThreadScheduledExecutor(
+                            runnable -> {
+                                final Thread thread = new Thread(runnable, TAG + "-snapshots");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        }
+        return snapshotScheduler.scheduleAtFixedRate(
+                () -> listener.onSnapshot(getSnapshot()),
+                periodInMillis,
+                periodInMillis,
+                TimeUnit.MILLISECONDS);
     }
 
-    @Override
-    public void execute(@NonNull Runnable command) {
-        pool.execute(command);
+    /**
+     * Shuts this executor down once its queued work is run, and waits for it, e.g. for an executor
+     * that is made for a test. The executors of the app are shut down when the process exits.
+     */
+    public void shutdown() {
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        synchronized (this) {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdownNow();
+            }
+        }
+        shutdownAndAwaitTermination();
     }
 
     /**
@@ -89,4 +458,156 @@ public class WorkExecutor implements Executor {
             pool.shutdownNow();
         }
     }
+
+    /** The lanes of work, in decreasing order of priority. */
+    public enum Lane {
+        // Work that the user is waiting for, e.g. loading the screen being opened.
+        USER_BLOCKING,
+        // Work whose result is shown to the user, e.g. storing a purchase.
+        USER_VISIBLE,
+        // Work that the user does not see, e.g. syncing the purchase history or writing reports.
+        BACKGROUND
+    }
+
+    /** What happens to the work queued in a lane that is full. */
+    public enum RejectionPolicy {
+        // The caller waits until the lane has room.
+        BLOCK,
+        // The work is rejected with a RejectedExecutionException.
+        ABORT,
+        // The caller runs the work.
+        CALLER_RUNS
+    }
+
+    /**
+     * The number of queued work that a lane holds, what happens to work beyond it, and the number
+     * of work that can be queued beyond it from the threads that must neither block nor run it.
+     */
+    public static final class LaneConfig {
+
+        final int capacity;
+        @NonNull final RejectionPolicy policy;
+        final int overflowCapacity;
+
+        /** Creates a lane whose overflow holds as much work as the lane. */
+        public LaneConfig(int capacity, @NonNull RejectionPolicy policy) {
+            this(capacity, policy, capacity);
+        }
+
+        public LaneConfig(int capacity, @NonNull RejectionPolicy policy, int overflowCapacity) {
+            this.capacity = capacity;
+            this.policy = policy;
+            this.overflowCapacity = overflowCapacity;
+        }
+    }
+
+    /** Takes the periodic snapshots of the metrics. */
+    public interface SnapshotListener {
+        void onSnapshot(@NonNull WorkExecutorMetrics.Snapshot snapshot);
+    }
+
+    /**
+     * A queued work, ordered by its lane and then by the order it was queued in. It gives its room
+     * in the lane, or in the overflow of the lane, back once it is started, and records its wait
+     * and its run.
+     */
+    private final class LaneTask implements Runnable, Comparable<LaneTask> {
+
+        final Lane lane;
+        final long sequence;
+        final String tag;
+        final Runnable command;
+        // The permits of the lane, or of its overflow if the work was queued beyond the lane.
+        @NonNull final Semaphore permits;
+        final long enqueueTime = System.nanoTime();
+
+        LaneTask(
+                @NonNull Lane lane,
+                long sequence,
+                @NonNull String tag,
+                @NonNull Runnable command,
+                @NonNull Semaphore permits) {
+            this.lane = lane;
+            this.sequence = sequence;
+            this.tag = tag;
+            this.command = command;
+            this.permits = permits;
+        }
+
+        void releasePermit() {
+            permits.release();
+        }
+
+        @Override
+        public void run() {
+            releasePermit();
+            if (command instanceof CancellableTask && ((CancellableTask) command).isCancelled()) {
+                // Cancelled after it was taken from the queue, it was counted as cancelled.
+                return;
+            }
+            final long startTime = System.nanoTime();
+            try {
+                command.run();
+            } finally {
+                recordRun(tag, startTime - enqueueTime, System.nanoTime() - startTime);
+            }
+        }
+
+        @Override
+        public int compareTo(@NonNull LaneTask other) {
+            final int laneOrder = lane.compareTo(other.lane);
+            return laneOrder != 0 ? laneOrder : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * A work with a handle that cancels it. A cancelled work is taken out of the queue, and gives
+     * its room in the lane back, if it has not been started yet. It is interrupted otherwise.
+     */
+    private final class CancellableTask extends FutureTask<Void> implements TaskHandle {
+
+        final String tag;
+        @Nullable final TaskGroup group;
+        // The queued work, null if the work ran on the caller.
+        @Nullable volatile LaneTask laneTask;
+
+        CancellableTask(@NonNull String tag, @NonNull Runnable command, @Nullable TaskGroup group) {
+            super(command, null);
+            this.tag = tag;
+            this.group = group;
+        }
+
+        @Override
+        public boolean cancel() {
+            return cancel(true);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!super.cancel(mayInterruptIfRunning)) {
+                return false;
+            }
+            final LaneTask queued = laneTask;
+            if (queued != null && pool.remove(queued)) {
+                queued.releasePermit();
+            }
+            metrics.recordCancelled(tag);
+            return true;
+        }
+
+        @Override
+        protected void done() {
+            if (group != null) {
+                group.remove(this);
+            }
+        }
+    }
+
+    /** A thread of the pool, which tells the work submitted from the pool apart. */
+    private static final class WorkerThread extends Thread {
+
+        WorkerThread(@NonNull Runnable runnable) {
+            super(runnable);
+        }
+    }
 }
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.worker;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkExecutorMetrics, records how long the work of {@link WorkExecutor} waits in its queue and
+ * runs, per the tag of the call site that submitted it, and gives snapshots of them along with the
+ * gauges of the executor. Work that was cancelled before it finished is counted apart from the work
+ * that ran, and so is the work that was queued beyond the capacity of its lane or rejected.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public final class WorkExecutorMetrics {
+
+    private final Map<String, TagMetrics> tagMetrics = new ConcurrentHashMap<>();
+
+    WorkExecutorMetrics() {}
+
+    /**
+     * Records a run of a work.
+     *
+     * @param tag The tag of the call site that submitted the work.
+     * @param waitInNanos The time the work waited in the queue.
+     * @param runInNanos The time the work ran for.
+     */
+    void record(@NonNull String tag, long waitInNanos, long runInNanos) {
+        getTagMetrics(tag).record(waitInNanos, runInNanos);
+    }
+
+    /**
+     * Records a work that was cancelled before it finished.
+     *
+     * @param tag The tag of the call site that submitted the work.
+     */
+    void recordCancelled(@NonNull String tag) {
+        getTagMetrics(tag).recordCancelled();
+    }
+
+    /**
+     * Records a work that was queued beyond the capacity of its lane.
+     *
+     * @param tag The tag of the call site that submitted the work.
+     */
+    void recordOverflowed(@NonNull String tag) {
+        getTagMetrics(tag).recordOverflowed();
+    }
+
+    /**
+     * Records a work that was rejected, as its lane was full.
+     *
+     * @param tag The tag of the call site that submitted the work.
+     */
+    void recordRejected(@NonNull String tag) {
+        getTagMetrics(tag).recordRejected();
+    }
+
+    @NonNull
+    private TagMetrics getTagMetrics(@NonNull String tag) {
+        TagMetrics metrics = tagMetrics.get(tag);
+        if (metrics == null) {
+            tagMetrics.putIfAbsent(tag, new TagMetrics(tag));
+            metrics = tagMetrics.get(tag);
+        }
+        return metrics;
+    }
+
+    /**
+     * Takes a snapshot of the recorded metrics and the given gauges.
+     *
+     * @param queueDepth The number of queued work.
+     * @param activeThreads The number of threads that are running work.
+     * @param completedCount The number of work that ran in the thread pool.
+     */
+    @NonNull
+    Snapshot snapshot(int queueDepth, int activeThreads, long completedCount) {
+        final List<TagSnapshot> tags = new ArrayList<>();
+        for (TagMetrics metrics : tagMetrics.values()) {
+            tags.add(metrics.snapshot());
+        }
+        Collections.sort(tags, (a, b) -> Long.compare(b.totalRunInNanos, a.totalRunInNanos));
+        return new Snapshot(queueDepth, activeThreads, completedCount, tags);
+    }
+
+    /** The metrics of the work submitted from a call site. */
+    private static final class TagMetrics {
+
+        final String tag;
+        long count;
+        long totalWaitInNanos;
+        long maxWaitInNanos;
+        long totalRunInNanos;
+        long maxRunInNanos;
+        long cancelledCount;
+        long overflowedCount;
+        long rejectedCount;
+
+        TagMetrics(@NonNull String tag) {
+            this.tag = tag;
+        }
+
+        synchronized void record(long waitInNanos, long runInNanos) {
+            count++;
+            totalWaitInNanos += waitInNanos;
+            maxWaitInNanos = Math.max(maxWaitInNanos, waitInNanos);
+            totalRunInNanos += runInNanos;
+            maxRunInNanos = Math.max(maxRunInNanos, runInNanos);
+        }
+
+        synchronized void recordCancelled() {
+            cancelledCount++;
+        }
+
+        synchronized void recordOverflowed() {
+            overflowedCount++;
+        }
+
+        synchronized void recordRejected() {
+            rejectedCount++;
+        }
+
+        @NonNull
+        synchronized TagSnapshot snapshot() {
+            return new TagSnapshot(
+                    tag,
+                    count,
+                    totalWaitInNanos,
+                    maxWaitInNanos,
+                    totalRunInNanos,
+                    maxRunInNanos,
+                    cancelledCount,
+                    overflowedCount,
+                    rejectedCount);
+        }
+    }
+
+    /** A snapshot of the metrics of the work submitted from a call site. */
+    public static final class TagSnapshot {
+
+        @NonNull public final String tag;
+        public final long count;
+        public final long totalWaitInNanos;
+        public final long maxWaitInNanos;
+        public final long totalRunInNanos;
+        public final long maxRunInNanos;
+        // The number of work that was cancelled before it finished. A work that was interrupted
+        // while running is counted in count too.
+        public final long cancelledCount;
+        // The number of work that was queued beyond the capacity of its lane, it is run too.
+        public final long overflowedCount;
+        // The number of work that was rejected, as its lane was full. It is not run.
+        public final long rejectedCount;
+
+        TagSnapshot(
+                @NonNull String tag,
+                long count,
+                long totalWaitInNanos,
+                long maxWaitInNanos,
+                long totalRunInNanos,
+                long maxRunInNanos,
+                long cancelledCount,
+                long overflowedCount,
+                long rejectedCount) {
+            this.tag = tag;
+            this.count = count;
+            this.totalWaitInNanos = totalWaitInNanos;
+            this.maxWaitInNanos = maxWaitInNanos;
+            this.totalRunInNanos = totalRunInNanos;
+            this.maxRunInNanos = maxRunInNanos;
+            this.cancelledCount = cancelledCount;
+            this.overflowedCount = overflowedCount;
+            this.rejectedCount = rejectedCount;
+        }
+    }
+
+    /** A snapshot of the gauges of the executor, and the metrics of every call site. */
+    public static final class Snapshot {
+
+        public final int queueDepth;
+        public final int activeThreads;
+        public final long completedCount;
+        // Sorted by the total run time, in decreasing order.
+        @NonNull public final List<TagSnapshot> tags;
+
+        Snapshot(
+                int queueDepth,
+                int activeThreads,
+                long completedCount,
+                @NonNull List<TagSnapshot> tags) {
+            this.queueDepth = queueDepth;
+            this.activeThreads = activeThreads;
+            this.completedCount = completedCount;
+            this.tags = Collections.unmodifiableList(tags);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            final StringBuilder report = new StringBuilder();
+            report.append(
+                    String.format(
+                            Locale.US,
+                            "queue depth: %d, active threads: %d, completed: %d%n",
+                            queueDepth,
+                            activeThreads,
+                            completedCount));
+            report.append(
+                    String.format(
+                            Locale.US,
+                            "%-40s %7s %9s %10s %8s %10s %9s %10s %9s%n",
+                            "tag",
+                            "n",
+                            "cancelled",
+                            "overflowed",
+                            "rejected",
+                            "avg wait",
+                            "max wait",
+                            "avg run",
+                            "max run"));
+            for (TagSnapshot tag : tags) {
+                // A tag whose work was only cancelled or rejected has no run to average.
+                final long count = Math.max(1, tag.count);
+                report.append(
+                        String.format(
+                                Locale.US,
+                                "%-40s %7d %9d %10d %8d %8.2fms %7dms %8.2fms %7dms%n",
+                                tag.tag,
+                                tag.count,
+                                tag.cancelledCount,
+                                tag.overflowedCount,
+                                tag.rejectedCount,
+                                toMillis(tag.totalWaitInNanos) / count,
+                                TimeUnit.NANOSECONDS.toMillis(tag.maxWaitInNanos),
+                                toMillis(tag.totalRunInNanos) / count,
+                                TimeUnit.NANOSECONDS.toMillis(tag.maxRunInNanos)));
+            }
+            return report.toString();
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000d;
+        }
+    }
+}
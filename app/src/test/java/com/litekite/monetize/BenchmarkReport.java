@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize;
+
+import androidx.annotation.NonNull;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects benchmark measurements of local unit tests and writes them as a JSON file, so that
+ * results can be compared between builds to track regressions.
+ *
+ * <p>Reports are written to "build/reports/benchmarks" of the module, unless the "benchmark.dir"
+ * system property says otherwise.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+public final class BenchmarkReport {
+
+    private final String name;
+    private final List<Map<String, Object>> results = new ArrayList<>();
+
+    public BenchmarkReport(@NonNull String name) {
+        this.name = name;
+    }
+
+    /**
+     * Runs the operation a number of times and measures its latency and the bytes it allocates on
+     * the calling thread.
+     *
+     * @param iterations Number of times the operation to be run.
+     * @param operation The operation to be measured.
+     * @return the measurement of the operation.
+     */
+    @NonNull
+    public static Measurement measure(int iterations, @NonNull Runnable operation) {
+        final long[] latencies = new long[iterations];
+        final long startAllocatedBytes = getAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            final long startTime = System.nanoTime();
+            operation.run();
+            latencies[i] = System.nanoTime() - startTime;
+        }
+        final long endAllocatedBytes = getAllocatedBytes();
+        Arrays.sort(latencies);
+        final long allocatedBytesPerOp =
+                startAllocatedBytes < 0
+                        ? -1
+                        : (endAllocatedBytes - startAllocatedBytes) / iterations;
+        return new Measurement(
+                iterations,
+                latencies[iterations / 2],
+                latencies[(int) Math.ceil(iterations * 0.9) - 1],
+                latencies[iterations - 1],
+                allocatedBytesPerOp);
+    }
+
+    /** @return bytes allocated so far by the calling thread, -1 if the JVM can't tell. */
+    public static long getAllocatedBytes() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a measurement to this report.
+     *
+     * @param benchmark Name of the benchmark.
+     * @param params Parameters of the benchmark, such as the number of rows.
+     * @param measurement The measurement to be added.
+     */
+    public synchronized void add(
+            @NonNull String benchmark,
+            @NonNull Map<String, Object> params,
+            @NonNull Measurement measurement) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("benchmark", benchmark);
+        result.putAll(params);
+        result.put("iterations", measurement.iterations);
+        result.put("medianNanos", measurement.medianNanos);
+        result.put("p90Nanos", measurement.p90Nanos);
+        result.put("maxNanos", measurement.maxNanos);
+        result.put("allocatedBytesPerOp", measurement.allocatedBytesPerOp);
+        results.add(result);
+    }
+
+    /**
+     * Writes all the measurements of this report to "[name].json".
+     *
+     * @return the report file.
+     * @throws IOException if the report could not be written.
+     */
+    @NonNull
+    public synchronized File write() throws IOException {
+        final File dir = new File(System.getProperty("benchmark.dir", "build/reports/benchmarks"));
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Could not create " + dir);
+        }
+        final File file = new File(dir, name + ".json");
+        try (Writer writer = new FileWriter(file)) {
+            writer.write("{\"name\":\"" + name + "\",\"results\":[");
+            for (int i = 0; i < results.size(); i++) {
+                writer.write(i == 0 ? "\n" : ",\n");
+                writeObject(writer, results.get(i));
+            }
+            writer.write("\n]}\n");
+        }
+        return file;
+    }
+
+    private static void writeObject(@NonNull Writer writer, @NonNull Map<String, Object> object)
+            throws IOException {
+        writer.write("{");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : object.entrySet()) {
+            if (!first) {
+                writer.write(",");
+            }
+            first = false;
+            writer.write("\"" + entry.getKey() + "\":");
+            final Object value = entry.getValue();
+            if (value instanceof Number || value instanceof Boolean) {
+                writer.write(String.valueOf(value));
+            } else {
+                writer.write("\"" + value + "\"");
+            }
+        }
+        writer.write("}");
+    }
+
+    /** Latency percentiles and allocation of a measured operation. */
+    public static final class Measurement {
+
+        public final int iterations;
+        public final long medianNanos;
+        public final long p90Nanos;
+        public final long maxNanos;
+        public final long allocatedBytesPerOp;
+
+        Measurement(
+                int iterations,
+                long medianNanos,
+                long p90Nanos,
+                long maxNanos,
+                long allocatedBytesPerOp) {
+            this.iterations = iterations;
+            this.medianNanos = medianNanos;
+            this.p90Nanos = p90Nanos;
+            this.maxNanos = maxNanos;
+            this.allocatedBytesPerOp = allocatedBytesPerOp;
+        }
+    }
+}
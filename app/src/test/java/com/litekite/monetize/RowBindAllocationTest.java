@@ -0,0 +1,175 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.Build;
+import android.os.Looper;
+import android.view.ContextThemeWrapper;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import com.litekite.monetize.base.ViewHolderPool;
+import com.litekite.monetize.billing.BillingConstants;
+import com.litekite.monetize.billing.BillingManager;
+import com.litekite.monetize.metrics.PurchaseFunnelTracer;
+import com.litekite.monetize.purchase.PurchaseItem;
+import com.litekite.monetize.purchase.PurchasesAdapter;
+import com.litekite.monetize.room.entity.BillingPurchaseCount;
+import com.litekite.monetize.room.entity.BillingPurchaseDetails;
+import com.litekite.monetize.room.entity.BillingSkuRelatedPurchases;
+import com.litekite.monetize.store.StoreAdapter;
+import com.litekite.monetize.store.StoreItem;
+import com.litekite.monetize.util.FormatService;
+import com.litekite.monetize.worker.WorkExecutor;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Checks that scrolling the Store and Purchases lists does not allocate, once their rows are
+ * inflated. Scrolling is driven through the adapters as a RecyclerView does it, the ViewHolders are
+ * recycled to a pool and taken back from it to be bound to the next product, which runs the row
+ * presenter's bind and the data binding's pending bindings.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.R, application = Application.class)
+public class RowBindAllocationTest {
+
+    private static final int WARM_UP_BINDS = 10_000;
+    private static final int MEASURED_BINDS = 100_000;
+    // The rows that are on screen at once, each of them is rebound to other products.
+    private static final int VISIBLE_ROWS = 3;
+
+    private Application application;
+    private RecyclerView recyclerView;
+    private StoreItem[] storeItems;
+    private PurchaseItem[] purchaseItems;
+    private int position;
+
+    @Before
+    public void setUp() {
+        assumeTrue(BenchmarkReport.getAllocatedBytes() >= 0);
+        application = ApplicationProvider.getApplicationContext();
+        final Context context = new ContextThemeWrapper(application, R.style.AppTheme);
+        recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        final Resources resources = application.getResources();
+        final FormatService formatService = new FormatService();
+        final BillingSkuRelatedPurchases apple =
+                createProduct(BillingConstants.SKU_BUY_APPLE, "$1.00", 3);
+        final BillingSkuRelatedPurchases popcorn =
+                createProduct("unlimited_popcorn_monthly", "$2.00", 1);
+        storeItems =
+                new StoreItem[] {
+                    StoreItem.from(resources, formatService, apple),
+                    StoreItem.from(resources, formatService, popcorn)
+                };
+        purchaseItems =
+                new PurchaseItem[] {
+                    PurchaseItem.from(resources, formatService, apple),
+                    PurchaseItem.from(resources, formatService, popcorn)
+                };
+    }
+
+    @Test
+    public void storeListScroll_doesNotAllocate() {
+        // The billing manager and the tracer's executor are only used when a product is tapped.
+        final StoreAdapter storeAdapter =
+                new StoreAdapter(
+                        mock(BillingManager.class),
+                        new PurchaseFunnelTracer(application, mock(WorkExecutor.class)),
+                        new ViewHolderPool(),
+                        Runnable::run);
+        storeAdapter.submitList(Arrays.asList(storeItems));
+        assertScrollDoesNotAllocate(storeAdapter, storeItems.length);
+    }
+
+    @Test
+    public void purchasesListScroll_doesNotAllocate() {
+        final PurchasesAdapter purchasesAdapter =
+                new PurchasesAdapter(new ViewHolderPool(), Runnable::run);
+        purchasesAdapter.submitList(Arrays.asList(purchaseItems));
+        assertScrollDoesNotAllocate(purchasesAdapter, purchaseItems.length);
+    }
+
+    /**
+     * Scrolls through the products of the given adapter, recycling a row and binding it to the next
+     * product at every step, and checks that the measured steps did not allocate.
+     *
+     * @param adapter An adapter whose products are submitted.
+     * @param itemCount Number of products of the adapter.
+     */
+    private void assertScrollDoesNotAllocate(
+            @NonNull RecyclerView.Adapter<RecyclerView.ViewHolder> adapter, int itemCount) {
+        shadowOf(Looper.getMainLooper()).idle();
+        assertThat(adapter.getItemCount()).isEqualTo(itemCount);
+        recyclerView.setAdapter(adapter);
+        final int viewType = adapter.getItemViewType(0);
+        final RecyclerView.RecycledViewPool recycledViewPool = recyclerView.getRecycledViewPool();
+        final RecyclerView.ViewHolder[] rows = new RecyclerView.ViewHolder[VISIBLE_ROWS];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = adapter.createViewHolder(recyclerView, viewType);
+        }
+        // The row that scrolls off is recycled and taken back to show the next product.
+        final Runnable scroll =
+                () -> {
+                    final int row = position % rows.length;
+                    recycledViewPool.putRecycledView(rows[row]);
+                    rows[row] = recycledViewPool.getRecycledView(viewType);
+                    adapter.bindViewHolder(rows[row], position++ % itemCount);
+                };
+        BenchmarkReport.measure(WARM_UP_BINDS, scroll);
+        final BenchmarkReport.Measurement measurement =
+                BenchmarkReport.measure(MEASURED_BINDS, scroll);
+        assertThat(recycledViewPool.getRecycledViewCount(viewType)).isEqualTo(0);
+        assertThat(measurement.allocatedBytesPerOp).isEqualTo(0);
+    }
+
+    @NonNull
+    private static BillingSkuRelatedPurchases createProduct(
+            @NonNull String skuID, @NonNull String skuPrice, int purchaseCount) {
+        final BillingSkuRelatedPurchases product = new BillingSkuRelatedPurchases();
+        product.billingSkuDetails.skuID = skuID;
+        product.billingSkuDetails.skuPrice = skuPrice;
+        product.billingPurchaseCount = new BillingPurchaseCount();
+        product.billingPurchaseCount.skuID = skuID;
+        product.billingPurchaseCount.purchaseCount = purchaseCount;
+        for (int i = 0; i < purchaseCount; i++) {
+            final BillingPurchaseDetails purchase = new BillingPurchaseDetails();
+            purchase.purchaseToken = skuID + "-token-" + i;
+            purchase.skuID = skuID;
+            purchase.purchaseTime = System.currentTimeMillis();
+            product.billingPurchaseDetails.add(purchase);
+        }
+        return product;
+    }
+}
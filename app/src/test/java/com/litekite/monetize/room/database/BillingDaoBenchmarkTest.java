@@ -0,0 +1,266 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.room.database;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.app.Application;
+import android.os.Build;
+import androidx.annotation.NonNull;
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import com.litekite.monetize.BenchmarkReport;
+import com.litekite.monetize.billing.BillingConstants;
+import com.litekite.monetize.room.dao.BillingDao;
+import com.litekite.monetize.room.entity.BillingPurchaseDetails;
+import com.litekite.monetize.room.entity.BillingSkuDetails;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Measures how {@link BillingDao} queries and inserts scale with the number of stored purchases.
+ * Each run seeds an in-memory {@link AppDatabase} with purchases spread across the SKUs and records
+ * latency and allocation per operation into "billing-dao-benchmark.json".
+ *
+ * <p>The suite is opt-in, as seeding large row counts takes minutes. It is skipped unless the row
+ * counts are given with the "benchmark.daoRowCounts" system property, e.g.
+ * -Dbenchmark.daoRowCounts=1000,100000,1000000. A million rows need a larger heap, e.g.
+ * -Dbenchmark.maxHeapSize=2g.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.R, application = Application.class)
+public class BillingDaoBenchmarkTest {
+
+    private static final String ROW_COUNTS_PROPERTY = "benchmark.daoRowCounts";
+    private static final BenchmarkReport REPORT = new BenchmarkReport("billing-dao-benchmark");
+    private static final String SKU_POPCORN = "unlimited_popcorn_monthly";
+    private static final String[] SKUS = {
+        BillingConstants.SKU_BUY_APPLE, SKU_POPCORN, BillingConstants.SKU_UNLOCK_APP_FEATURES
+    };
+    private static final int QUERY_ITERATIONS = 10;
+    private static final int INSERT_ITERATIONS = 10;
+    private static final int INSERT_BATCH_SIZE = 100;
+
+    @Rule
+    public final InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private final int rowCount;
+    private AppDatabase appDatabase;
+    private int insertedRows;
+
+    public BillingDaoBenchmarkTest(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "rows = {0}")
+    public static Collection<Object[]> rowCounts() {
+        final List<Object[]> rowCounts = new ArrayList<>();
+        // A single small run when not opted in, which is skipped.
+        for (String rowCount : System.getProperty(ROW_COUNTS_PROPERTY, "1000").split(",")) {
+            rowCounts.add(new Object[] {Integer.parseInt(rowCount.trim())});
+        }
+        return rowCounts;
+    }
+
+    @AfterClass
+    public static void writeReport() throws IOException {
+        if (isEnabled()) {
+            REPORT.write();
+        }
+    }
+
+    private static boolean isEnabled() {
+        return System.getProperty(ROW_COUNTS_PROPERTY) != null;
+    }
+
+    /**
+     * Gives the value a LiveData query emits on subscription. Room runs the query on the calling
+     * thread, as the query and transaction executors of the database run tasks in place.
+     */
+    private static <T> T getValue(@NonNull LiveData<T> liveData) {
+        final AtomicReference<T> value = new AtomicReference<>();
+        final Observer<T> observer = value::set;
+        liveData.observeForever(observer);
+        liveData.removeObserver(observer);
+        return value.get();
+    }
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("Set -D" + ROW_COUNTS_PROPERTY + " to run the benchmarks", isEnabled());
+        appDatabase =
+                Room.inMemoryDatabaseBuilder(
+                                ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                        .addCallback(AppDatabase.DATABASE_CALLBACK)
+                        .setQueryExecutor(Runnable::run)
+                        .setTransactionExecutor(Runnable::run)
+                        .allowMainThreadQueries()
+                        .build();
+        appDatabase.insertSkuDetails(createSkuDetails());
+        appDatabase.bulkInsertPurchaseDetails(
+                new SeedPurchases(rowCount), AppDatabase.BULK_INSERT_CHUNK_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        if (appDatabase != null) {
+            appDatabase.close();
+        }
+    }
+
+    @Test
+    public void getSkuRelatedPurchases() {
+        assertThat(getValue(appDatabase.getSkuRelatedPurchases())).hasSize(SKUS.length - 1);
+        record(
+                "getSkuRelatedPurchases",
+                BenchmarkReport.measure(
+                        QUERY_ITERATIONS, () -> getValue(appDatabase.getSkuRelatedPurchases())));
+    }
+
+    @Test
+    public void getIsThisSkuPurchased() {
+        assertThat(getValue(appDatabase.getIsThisSkuPurchased(SKU_POPCORN))).isTrue();
+        record(
+                "getIsThisSkuPurchased",
+                BenchmarkReport.measure(
+                        QUERY_ITERATIONS,
+                        () -> getValue(appDatabase.getIsThisSkuPurchased(SKU_POPCORN))));
+    }
+
+    @Test
+    public void getSkuDetails() {
+        assertThat(getValue(appDatabase.getSkuDetails(SKU_POPCORN))).isNotNull();
+        record(
+                "getSkuDetails",
+                BenchmarkReport.measure(
+                        QUERY_ITERATIONS, () -> getValue(appDatabase.getSkuDetails(SKU_POPCORN))));
+    }
+
+    @Test
+    public void insertSkuDetails() {
+        final List<BillingSkuDetails> billingSkuDetails = createSkuDetails();
+        record(
+                "insertSkuDetails",
+                BenchmarkReport.measure(
+                        INSERT_ITERATIONS, () -> appDatabase.insertSkuDetails(billingSkuDetails)));
+    }
+
+    @Test
+    public void insertPurchaseDetails() {
+        record(
+                "insertPurchaseDetails",
+                BenchmarkReport.measure(
+                        INSERT_ITERATIONS,
+                        () -> appDatabase.insertPurchaseDetails(createPurchaseDetails())));
+    }
+
+    private void record(@NonNull String benchmark, @NonNull BenchmarkReport.Measurement m) {
+        final Map<String, Object> params = new LinkedHashMap<>();
+        params.put("rows", rowCount);
+        REPORT.add(benchmark, params, m);
+    }
+
+    @NonNull
+    private static List<BillingSkuDetails> createSkuDetails() {
+        final List<BillingSkuDetails> billingSkuDetailsList = new ArrayList<>();
+        for (String sku : SKUS) {
+            BillingSkuDetails billingSkuDetails = new BillingSkuDetails();
+            billingSkuDetails.skuID = sku;
+            billingSkuDetails.skuType = sku.equals(SKU_POPCORN) ? "subs" : "inapp";
+            billingSkuDetails.skuPrice = "$0.99";
+            billingSkuDetails.priceAmountMicros = 990_000;
+            billingSkuDetails.priceCurrencyCode = "USD";
+            billingSkuDetails.title = sku;
+            billingSkuDetailsList.add(billingSkuDetails);
+        }
+        return billingSkuDetailsList;
+    }
+
+    /** Creates a batch of purchases that are not stored yet. */
+    @NonNull
+    private List<BillingPurchaseDetails> createPurchaseDetails() {
+        final List<BillingPurchaseDetails> billingPurchaseDetailsList =
+                new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < INSERT_BATCH_SIZE; i++) {
+            BillingPurchaseDetails billingPurchaseDetails = new BillingPurchaseDetails();
+            billingPurchaseDetails.purchaseToken = "insert-token-" + insertedRows++;
+            billingPurchaseDetails.skuID = BillingConstants.SKU_BUY_APPLE;
+            billingPurchaseDetails.purchaseTime = System.currentTimeMillis();
+            billingPurchaseDetailsList.add(billingPurchaseDetails);
+        }
+        return billingPurchaseDetailsList;
+    }
+
+    /** Purchases used to seed the database, spread across all the SKUs. */
+    private static final class SeedPurchases implements PurchaseRecordSource {
+
+        private final int size;
+        private final long purchaseTime = System.currentTimeMillis();
+
+        SeedPurchases(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @NonNull
+        @Override
+        public String getPurchaseToken(int index) {
+            return "seed-token-" + index;
+        }
+
+        @NonNull
+        @Override
+        public String getOrderID(int index) {
+            return "seed-order-" + index;
+        }
+
+        @NonNull
+        @Override
+        public String getSkuID(int index) {
+            return SKUS[index % SKUS.length];
+        }
+
+        @Override
+        public long getPurchaseTime(int index) {
+            return purchaseTime - index;
+        }
+    }
+}
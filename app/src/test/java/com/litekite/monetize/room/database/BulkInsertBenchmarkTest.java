@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.room.database;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.app.Application;
+import android.database.Cursor;
+import android.os.Build;
+import androidx.annotation.NonNull;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import com.litekite.monetize.BenchmarkReport;
+import com.litekite.monetize.room.entity.BillingPurchaseDetails;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Compares {@link AppDatabase#bulkInsertPurchaseDetails(PurchaseRecordSource, int)} against the
+ * Room generated {@link AppDatabase#insertPurchaseDetails(List)} on an in-memory database, and
+ * records their latency into "bulk-insert-benchmark.json".
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.R, application = Application.class)
+public class BulkInsertBenchmarkTest {
+
+    private static final int ROW_COUNT = 20_000;
+    private static final String[] SKUS = {"one_apple", "unlimited_popcorn_monthly"};
+
+    /** Source records, as they would come from a restored purchase history. */
+    private static final PurchaseRecordSource SOURCE =
+            new PurchaseRecordSource() {
+                @Override
+                public int size() {
+                    return ROW_COUNT;
+                }
+
+                @NonNull
+                @Override
+                public String getPurchaseToken(int index) {
+                    return "token-" + index;
+                }
+
+                @NonNull
+                @Override
+                public String getOrderID(int index) {
+                    return "order-" + index;
+                }
+
+                @NonNull
+                @Override
+                public String getSkuID(int index) {
+                    return SKUS[index % SKUS.length];
+                }
+
+                @Override
+                public long getPurchaseTime(int index) {
+                    return System.currentTimeMillis() + index;
+                }
+            };
+
+    private AppDatabase appDatabase;
+
+    @Before
+    public void setUp() {
+        appDatabase =
+                Room.inMemoryDatabaseBuilder(
+                                ApplicationProvider.getApplicationContext(), AppDatabase.class)
+                        .addCallback(AppDatabase.DATABASE_CALLBACK)
+                        .allowMainThreadQueries()
+                        .build();
+    }
+
+    @After
+    public void tearDown() {
+        appDatabase.close();
+    }
+
+    @Test
+    public void bulkInsert_insertsAllRowsAndCountsThem() {
+        BulkInsertStats stats =
+                appDatabase.bulkInsertPurchaseDetails(SOURCE, AppDatabase.BULK_INSERT_CHUNK_SIZE);
+
+        assertThat(stats.rowCount).isEqualTo(ROW_COUNT);
+        assertThat(stats.chunkCount).isEqualTo(ROW_COUNT / AppDatabase.BULK_INSERT_CHUNK_SIZE);
+        assertThat(queryLong("select count(*) from billing_purchase_details")).isEqualTo(ROW_COUNT);
+        assertThat(queryLong("select sum(purchase_count) from billing_purchase_count"))
+                .isEqualTo(ROW_COUNT);
+    }
+
+    @Test
+    public void bulkInsert_comparedWithEntityInsert() throws IOException {
+        final BenchmarkReport report = new BenchmarkReport("bulk-insert-benchmark");
+        final Map<String, Object> params = new LinkedHashMap<>();
+        params.put("rows", ROW_COUNT);
+        List<BillingPurchaseDetails> billingPurchaseDetailsList = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            BillingPurchaseDetails billingPurchaseDetails = new BillingPurchaseDetails();
+            billingPurchaseDetails.purchaseToken = SOURCE.getPurchaseToken(i);
+            billingPurchaseDetails.orderID = SOURCE.getOrderID(i);
+            billingPurchaseDetails.skuID = SOURCE.getSkuID(i);
+            billingPurchaseDetails.purchaseTime = SOURCE.getPurchaseTime(i);
+            billingPurchaseDetailsList.add(billingPurchaseDetails);
+        }
+        report.add(
+                "insertPurchaseDetails",
+                params,
+                BenchmarkReport.measure(
+                        1, () -> appDatabase.insertPurchaseDetails(billingPurchaseDetailsList)));
+
+        appDatabase.clearAllTables();
+
+        report.add(
+                "bulkInsertPurchaseDetails",
+                params,
+                BenchmarkReport.measure(
+                        1,
+                        () ->
+                                appDatabase.bulkInsertPurchaseDetails(
+                                        SOURCE, AppDatabase.BULK_INSERT_CHUNK_SIZE)));
+        report.write();
+
+        assertThat(queryLong("select count(*) from billing_purchase_details")).isEqualTo(ROW_COUNT);
+    }
+
+    private long queryLong(@NonNull String sql) {
+        try (Cursor cursor = appDatabase.query(sql, null)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.worker;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.app.Application;
+import android.os.Build;
+import androidx.annotation.NonNull;
+import com.litekite.monetize.BenchmarkReport;
+import com.litekite.monetize.app.MonetizeApp;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Compares one {@link WorkExecutor} shared by CPU-bound work and blocking I/O, with a thread per
+ * available core as the app had it before, against a CPU-bound and an I/O-bound {@link
+ * WorkExecutor}, as they are provided by {@link com.litekite.monetize.di.AppComponents}, under the
+ * same mixed load. The CPU-bound work spins like entity mapping and JSON parsing do, and the I/O
+ * work sleeps like a blocked SQLite query, which holds a thread of the shared executor without
+ * using its core. The split executors are expected to run the load faster.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.R, application = Application.class)
+public class WorkExecutorBenchmarkTest {
+
+    private static final int CPU_TASKS = 200;
+    private static final int IO_TASKS = 200;
+    private static final long CPU_TASK_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long IO_TASK_IN_MILLIS = 4;
+    private static final int WARM_UP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+    private static final String TAG = WorkExecutorBenchmarkTest.class.getName();
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+    private static final int CPU_THREADS = CORES;
+    private static final int IO_THREADS = Math.max(4, 2 * CORES);
+
+    private final AtomicLong sink = new AtomicLong();
+    private WorkExecutor sharedExecutor;
+    private WorkExecutor cpuExecutor;
+    private WorkExecutor ioExecutor;
+
+    @Before
+    public void setUp() {
+        sharedExecutor = new WorkExecutor(CORES, getLaneConfigs());
+        cpuExecutor = new WorkExecutor(CPU_THREADS, getLaneConfigs());
+        ioExecutor = new WorkExecutor(IO_THREADS, getLaneConfigs());
+    }
+
+    @After
+    public void tearDown() {
+        sharedExecutor.shutdown();
+        cpuExecutor.shutdown();
+        ioExecutor.shutdown();
+    }
+
+    @Test
+    public void mixedLoad_sharedComparedWithSplitExecutors() throws IOException {
+        final BenchmarkReport report = new BenchmarkReport("WorkExecutorBenchmark");
+
+        final Runnable sharedLoad = () -> runMixedLoad(sharedExecutor, sharedExecutor);
+        final Runnable splitLoad = () -> runMixedLoad(cpuExecutor, ioExecutor);
+        BenchmarkReport.measure(WARM_UP_RUNS, sharedLoad);
+        BenchmarkReport.measure(WARM_UP_RUNS, splitLoad);
+        final BenchmarkReport.Measurement shared =
+                BenchmarkReport.measure(MEASURED_RUNS, sharedLoad);
+        final BenchmarkReport.Measurement split = BenchmarkReport.measure(MEASURED_RUNS, splitLoad);
+
+        report.add("mixedLoad_shared", getParams(), shared);
+        report.add("mixedLoad_split", getParams(), split);
+        report.write();
+        MonetizeApp.printLog(
+                TAG,
+                "tasks per second, shared: "
+                        + getThroughput(shared)
+                        + ", split: "
+                        + getThroughput(split));
+        MonetizeApp.printLog(TAG, "shared executor, " + sharedExecutor.getSnapshot());
+        MonetizeApp.printLog(TAG, "CPU executor, " + cpuExecutor.getSnapshot());
+        MonetizeApp.printLog(TAG, "I/O executor, " + ioExecutor.getSnapshot());
+        assertThat(split.medianNanos).isLessThan(shared.medianNanos);
+    }
+
+    /** Submits the CPU-bound and the I/O work interleaved, and waits until all of it is run. */
+    private void runMixedLoad(@NonNull WorkExecutor cpuExecutor, @NonNull WorkExecutor ioExecutor) {
+        final CountDownLatch latch = new CountDownLatch(CPU_TASKS + IO_TASKS);
+        for (int i = 0; i < Math.max(CPU_TASKS, IO_TASKS); i++) {
+            if (i < CPU_TASKS) {
+                cpuExecutor.execute(
+                        WorkExecutor.Lane.USER_VISIBLE,
+                        "cpu",
+                        () -> {
+                            spin();
+                            latch.countDown();
+                        });
+            }
+            if (i < IO_TASKS) {
+                ioExecutor.execute(
+                        WorkExecutor.Lane.USER_VISIBLE,
+                        "io",
+                        () -> {
+                            block();
+                            latch.countDown();
+                        });
+            }
+        }
+        try {
+            assertThat(latch.await(1, TimeUnit.MINUTES)).isTrue();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private void spin() {
+        final long deadline = System.nanoTime() + CPU_TASK_IN_NANOS;
+        long iterations = 0;
+        while (System.nanoTime() < deadline) {
+            iterations++;
+        }
+        sink.addAndGet(iterations);
+    }
+
+    private static void block() {
+        try {
+            Thread.sleep(IO_TASK_IN_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long getThroughput(@NonNull BenchmarkReport.Measurement measurement) {
+        return (CPU_TASKS + IO_TASKS) * TimeUnit.SECONDS.toNanos(1) / measurement.medianNanos;
+    }
+
+    @NonNull
+    private static Map<String, Object> getParams() {
+        final Map<String, Object> params = new LinkedHashMap<>();
+        params.put("cores", CORES);
+        params.put("sharedThreads", CORES);
+        params.put("splitThreads", CPU_THREADS + IO_THREADS);
+        params.put("cpuTasks", CPU_TASKS);
+        params.put("ioTasks", IO_TASKS);
+        return params;
+    }
+
+    /** Lanes that hold the whole load, so that no work runs on the submitting thread. */
+    @NonNull
+    private static Map<WorkExecutor.Lane, WorkExecutor.LaneConfig> getLaneConfigs() {
+        final Map<WorkExecutor.Lane, WorkExecutor.LaneConfig> laneConfigs =
+                new EnumMap<>(WorkExecutor.Lane.class);
+        for (WorkExecutor.Lane lane : WorkExecutor.Lane.values()) {
+            laneConfigs.put(
+                    lane,
+                    new WorkExecutor.LaneConfig(
+                            CPU_TASKS + IO_TASKS, WorkExecutor.RejectionPolicy.ABORT));
+        }
+        return laneConfigs;
+    }
+}
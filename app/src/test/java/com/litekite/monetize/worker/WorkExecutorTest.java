@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 LiteKite Startup. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.litekite.monetize.worker;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import android.app.Application;
+import android.os.Build;
+import androidx.annotation.NonNull;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Checks that the work submitted to a full lane of {@link WorkExecutor} from the main thread, which
+ * must neither block nor run it, is queued beyond the lane only up to the overflow capacity of the
+ * lane, and that the overflowed and the rejected work are counted in its metrics.
+ *
+ * @author Vignesh S
+ * @version 1.0, 18/10/2026
+ * @since 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.R, application = Application.class)
+public class WorkExecutorTest {
+
+    private static final int CAPACITY = 2;
+    private static final int OVERFLOW_CAPACITY = 3;
+    private static final String TAG = "WorkExecutorTest.fill";
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private WorkExecutor workExecutor;
+
+    @Before
+    public void setUp() {
+        // A single thread, which is kept busy so that the submitted work stays queued.
+        workExecutor = new WorkExecutor(1, getLaneConfigs());
+        workExecutor.execute(
+                WorkExecutor.Lane.BACKGROUND,
+                "WorkExecutorTest.block",
+                () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        workExecutor.shutdown();
+    }
+
+    @Test
+    public void fullLane_queuesUpToItsOverflowThenRejects() throws InterruptedException {
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < CAPACITY + OVERFLOW_CAPACITY; i++) {
+            workExecutor.execute(WorkExecutor.Lane.BACKGROUND, TAG, () -> {});
+        }
+        assertThat(workExecutor.getQueueDepth(WorkExecutor.Lane.BACKGROUND))
+                .isEqualTo(CAPACITY + OVERFLOW_CAPACITY);
+        assertThrows(
+                RejectedExecutionException.class,
+                () -> workExecutor.execute(WorkExecutor.Lane.BACKGROUND, TAG, () -> {}));
+        final WorkExecutorMetrics.TagSnapshot snapshot = getTagSnapshot(TAG);
+        assertThat(snapshot.overflowedCount).isEqualTo(OVERFLOW_CAPACITY);
+        assertThat(snapshot.rejectedCount).isEqualTo(1);
+        // The overflow gives its room back once its work is run.
+        release.countDown();
+        workExecutor.shutdown();
+        assertThat(workExecutor.getQueueDepth(WorkExecutor.Lane.BACKGROUND)).isEqualTo(0);
+        assertThat(getTagSnapshot(TAG).count).isEqualTo(CAPACITY + OVERFLOW_CAPACITY);
+    }
+
+    @NonNull
+    private WorkExecutorMetrics.TagSnapshot getTagSnapshot(@NonNull String tag) {
+        for (WorkExecutorMetrics.TagSnapshot snapshot : workExecutor.getSnapshot().tags) {
+            if (snapshot.tag.equals(tag)) {
+                return snapshot;
+            }
+        }
+        throw new AssertionError("No metrics for: " + tag);
+    }
+
+    /** A small background lane, which blocks its callers that may block. */
+    @NonNull
+    private static Map<WorkExecutor.Lane, WorkExecutor.LaneConfig> getLaneConfigs() {
+        final Map<WorkExecutor.Lane, WorkExecutor.LaneConfig> laneConfigs =
+                new EnumMap<>(WorkExecutor.Lane.class);
+        for (WorkExecutor.Lane lane : WorkExecutor.Lane.values()) {
+            laneConfigs.put(
+                    lane,
+                    new WorkExecutor.LaneConfig(
+                            CAPACITY, WorkExecutor.RejectionPolicy.BLOCK, OVERFLOW_CAPACITY));
+        }
+        return laneConfigs;
+    }
+}